@@ -2,8 +2,10 @@ package app.category.repository;
 
 import app.category.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -13,5 +15,17 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     Optional<Category> findByName(String name);
 
+    interface RecipeCount {
+        String getName();
+
+        long getRecipes();
+    }
+
+    // Every category with its non-deleted recipes, including categories that have none
+    @Query("SELECT c.name AS name, COUNT(r) AS recipes FROM Category c " +
+            "LEFT JOIN c.recipes r ON r.deleted = false " +
+            "GROUP BY c.name")
+    List<RecipeCount> countRecipesByCategory();
+
 
 }
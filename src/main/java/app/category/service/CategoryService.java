@@ -41,16 +41,17 @@ public class CategoryService {
         return categories;
     }
 
+    /**
+     * Recipe counts per category from a single GROUP BY query. RecipeService evicts the snapshot whenever a
+     * recipe is created, updated or deleted.
+     */
+    @Cacheable("categoryRecipeCounts")
     public Map<String, Long> getCategoryRecipeCounts() {
 
-        List<Category> categories = getAllCategories();
-
-        return  categories.stream()
-                .collect(Collectors.toMap(
-                        Category::getName,
-                        category -> category.getRecipes().stream()
-                                .filter(recipe -> !recipe.isDeleted())
-                                .count()
+        return categoryRepository.countRecipesByCategory().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        CategoryRepository.RecipeCount::getName,
+                        CategoryRepository.RecipeCount::getRecipes
                 ));
 
     }
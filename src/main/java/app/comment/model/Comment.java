@@ -13,6 +13,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_comment_recipe_created", columnList = "recipe_id, created_on, id"))
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -1,11 +1,14 @@
 package app.comment.repository;
 
 import app.comment.model.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,9 +21,24 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.author WHERE c.recipe.id = :recipeId ORDER BY c.createdOn DESC")
     List<Comment> findByRecipeIdWithAuthor(@Param("recipeId") UUID recipeId);
 
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.recipe.id = :recipeId " +
+            "ORDER BY c.createdOn DESC, c.id DESC")
+    Slice<Comment> findFirstPageByRecipeId(@Param("recipeId") UUID recipeId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.recipe.id = :recipeId " +
+            "AND (c.createdOn < :createdOn OR (c.createdOn = :createdOn AND c.id < :id)) " +
+            "ORDER BY c.createdOn DESC, c.id DESC")
+    Slice<Comment> findPageByRecipeIdAfter(@Param("recipeId") UUID recipeId,
+                                           @Param("createdOn") LocalDateTime createdOn,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
 
     @Query("SELECT COUNT(DISTINCT c.author.id) FROM Comment c")
     long countDistinctAuthors();
 
+    @Query("SELECT COUNT(DISTINCT c.recipe.id) FROM Comment c")
+    long countDistinctRecipes();
+
 
 }
@@ -9,25 +9,35 @@ import app.recipe.service.RecipeService;
 import app.user.model.User;
 import app.web.dto.CommentCreateRequest;
 import app.web.dto.CommentEditRequest;
+import app.web.dto.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Slf4j
 @Service
+@Transactional
 public class CommentService {
 
+    public static final int PAGE_SIZE = 10;
+
     private final CommentRepository commentRepository;
     private final RecipeService recipeService;
+    private final RecipeCommentStatistics recipeCommentStatistics;
 
     @Autowired
     public CommentService(CommentRepository commentRepository,
-                          RecipeService recipeService) {
+                          RecipeService recipeService,
+                          RecipeCommentStatistics recipeCommentStatistics) {
         this.commentRepository = commentRepository;
         this.recipeService = recipeService;
+        this.recipeCommentStatistics = recipeCommentStatistics;
     }
 
     public Comment createComment(CommentCreateRequest commentCreateRequest, UUID recipeId, User author) {
@@ -43,6 +53,8 @@ public class CommentService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        int ratingCount = recipeService.adjustRatingAggregate(recipeId, comment.getRating(), 1);
+        recipeCommentStatistics.commentAdded(ratingCount == 1);
 
         log.info("User [{}] added comment to recipe [{}] with rating [{}]",
                 author.getUsername(), recipe.getTitle(), commentCreateRequest.getRating());
@@ -62,12 +74,14 @@ public class CommentService {
 
     public Comment updateComment(UUID commentId, CommentEditRequest commentEditRequest, User currentUser) {
         Comment comment = getCommentWithAuthorCheck(commentId, currentUser);
+        int previousRating = comment.getRating();
 
         comment.setContent(commentEditRequest.getContent());
         comment.setRating(commentEditRequest.getRating());
         comment.setUpdatedOn(LocalDateTime.now());
 
         Comment updatedComment = commentRepository.save(comment);
+        recipeService.adjustRatingAggregate(comment.getRecipe().getId(), comment.getRating() - previousRating, 0);
 
         log.info("User [{}] updated comment [{}]", currentUser.getUsername(), commentId);
 
@@ -78,22 +92,12 @@ public class CommentService {
         return commentRepository.findByRecipeIdWithAuthor(recipeId);
     }
 
-    public Double getAverageRatingForRecipe(UUID recipeId) {
-        List<Comment> comments = getCommentsByRecipe(recipeId);
-        if (comments.isEmpty()) {
-            return null;
+    public Slice<Comment> getCommentsPage(UUID recipeId, KeysetCursor after) {
+        PageRequest page = PageRequest.of(0, PAGE_SIZE);
+        if (after == null) {
+            return commentRepository.findFirstPageByRecipeId(recipeId, page);
         }
-
-        double sum = comments.stream()
-                .mapToInt(Comment::getRating)
-                .sum();
-
-        return sum / comments.size();
-    }
-
-    public int getTotalRatingsForRecipe(UUID recipeId) {
-        List<Comment> comments = getCommentsByRecipe(recipeId);
-        return comments.size();
+        return commentRepository.findPageByRecipeIdAfter(recipeId, after.getCreatedOn(), after.getId(), page);
     }
 
     public Comment getById(UUID id) {
@@ -105,6 +109,8 @@ public class CommentService {
         Comment comment = getCommentWithAuthorCheck(commentId, currentUser);
 
         commentRepository.delete(comment);
+        int ratingCount = recipeService.adjustRatingAggregate(comment.getRecipe().getId(), -comment.getRating(), -1);
+        recipeCommentStatistics.commentRemoved(ratingCount == 0);
 
         log.info("User [{}] deleted comment [{}]", currentUser.getUsername(), commentId);
     }
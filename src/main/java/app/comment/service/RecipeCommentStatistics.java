@@ -0,0 +1,133 @@
+package app.comment.service;
+
+import app.config.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running comment coverage counters, kept up to date by the comment and recipe
+ * services and exposed as gauges. Lifecycle events are applied once the surrounding
+ * transaction commits, so a rolled back change never moves the counters.
+ * CommentScheduler periodically reconciles them against the database.
+ */
+@Slf4j
+@Component
+public class RecipeCommentStatistics {
+
+    private final AtomicLong totalComments = new AtomicLong();
+    private final AtomicLong commentedRecipes = new AtomicLong();
+    private final AtomicLong publicRecipes = new AtomicLong();
+
+    // Bumped by every lifecycle update, so reconcile can tell whether one landed while it was counting
+    private final AtomicLong updates = new AtomicLong();
+
+    public RecipeCommentStatistics(MeterRegistry meterRegistry) {
+        Gauge.builder("recipe.comments.total", totalComments, AtomicLong::get)
+                .description("Number of comments across all recipes")
+                .register(meterRegistry);
+        Gauge.builder("recipe.comments.commented.recipes", commentedRecipes, AtomicLong::get)
+                .description("Number of recipes with at least one comment")
+                .register(meterRegistry);
+        Gauge.builder("recipe.comments.public.recipes", publicRecipes, AtomicLong::get)
+                .description("Number of public, non-deleted recipes")
+                .register(meterRegistry);
+        Gauge.builder("recipe.comments.coverage", this, RecipeCommentStatistics::getCoverage)
+                .description("Commented recipes as a share of public recipes")
+                .register(meterRegistry);
+    }
+
+    public void commentAdded(boolean firstOnRecipe) {
+        AfterCommit.run(() -> {
+            totalComments.incrementAndGet();
+            if (firstOnRecipe) {
+                commentedRecipes.incrementAndGet();
+            }
+            updates.incrementAndGet();
+        });
+    }
+
+    public void commentRemoved(boolean lastOnRecipe) {
+        AfterCommit.run(() -> {
+            totalComments.decrementAndGet();
+            if (lastOnRecipe) {
+                commentedRecipes.decrementAndGet();
+            }
+            updates.incrementAndGet();
+        });
+    }
+
+    public void publicRecipeAdded() {
+        AfterCommit.run(() -> {
+            publicRecipes.incrementAndGet();
+            updates.incrementAndGet();
+        });
+    }
+
+    public void publicRecipeRemoved() {
+        AfterCommit.run(() -> {
+            publicRecipes.decrementAndGet();
+            updates.incrementAndGet();
+        });
+    }
+
+    /**
+     * The counters as they stand before CommentScheduler counts the database. Take it before the count queries.
+     */
+    public Snapshot snapshot() {
+        long version = updates.get();
+        return new Snapshot(version, totalComments.get(), commentedRecipes.get(), publicRecipes.get());
+    }
+
+    /**
+     * Applies the difference between the counted values and the snapshot, and logs it as drift. If a lifecycle
+     * update landed after the snapshot, the counts may or may not include it, so nothing is applied and the next
+     * run reconciles instead. An update that slips in between that check and the additions is kept rather than
+     * overwritten, and is double counted only if the count queries already saw its commit.
+     *
+     * @return whether the drift was applied
+     */
+    public boolean reconcile(Snapshot before, long totalComments, long commentedRecipes, long publicRecipes) {
+        if (updates.get() != before.version()) {
+            log.debug("Comment statistics reconcile skipped, counters moved while counting");
+            return false;
+        }
+
+        long commentDrift = totalComments - before.totalComments();
+        long commentedDrift = commentedRecipes - before.commentedRecipes();
+        long publicDrift = publicRecipes - before.publicRecipes();
+
+        this.totalComments.addAndGet(commentDrift);
+        this.commentedRecipes.addAndGet(commentedDrift);
+        this.publicRecipes.addAndGet(publicDrift);
+
+        if (commentDrift != 0 || commentedDrift != 0 || publicDrift != 0) {
+            log.info("Comment statistics drift corrected: comments {}, commented recipes {}, public recipes {}",
+                    commentDrift, commentedDrift, publicDrift);
+        }
+        return true;
+    }
+
+    public long getTotalComments() {
+        return totalComments.get();
+    }
+
+    public long getCommentedRecipes() {
+        return commentedRecipes.get();
+    }
+
+    public long getPublicRecipes() {
+        return publicRecipes.get();
+    }
+
+    public double getCoverage() {
+        long recipes = publicRecipes.get();
+        return recipes == 0 ? 0 : (double) commentedRecipes.get() / recipes;
+    }
+
+    public record Snapshot(long version, long totalComments, long commentedRecipes, long publicRecipes) {
+    }
+}
@@ -1,16 +1,27 @@
 package app.config;
 
+import app.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class BeanConfiguration {
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getBcryptStrength());
 
-        return new BCryptPasswordEncoder();
+        // New hashes are stored as {bcrypt}...; older ones have no prefix and are plain BCrypt. Both report
+        // upgradeEncoding() when they lack the prefix or use a lower strength, and are re-hashed at login.
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
 
+        return new BoundedPasswordEncoder(delegating, properties.getThreads(), properties.getQueueCapacity(), meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfiguration {
+
+    // Caffeine bounds every region by size with W-TinyLFU admission, and recordStats() feeds the
+    // cache.gets / cache.puts / cache.evictions meters that actuator registers for each region.
+    @Bean
+    public CacheManager cacheManager(CacheRegionProperties properties) {
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(properties.getDefaults()));
+
+        properties.getRegions().forEach((name, region) ->
+                cacheManager.registerCustomCache(name, builder(region).build()));
+
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(CacheRegionProperties.Region region) {
+        return Caffeine.newBuilder()
+                .maximumSize(region.getMaximumSize())
+                .expireAfterWrite(region.getTimeToLive())
+                .recordStats();
+    }
+}
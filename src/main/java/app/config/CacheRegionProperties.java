@@ -0,0 +1,31 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Size and expiry for each @Cacheable region, e.g. {@code caches.regions.users.maximum-size=1}.
+ * Regions without an entry use {@code caches.defaults}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "caches")
+public class CacheRegionProperties {
+
+    private Region defaults = new Region();
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        private long maximumSize = 1000;
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
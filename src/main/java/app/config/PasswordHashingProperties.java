@@ -0,0 +1,23 @@
+package app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * BCrypt cost and the pool that runs password hashing, e.g. {@code password-hashing.bcrypt-strength=12}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    // log2 of the BCrypt rounds; raising it upgrades stored hashes at each user's next login
+    private int bcryptStrength = 10;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Hashes waiting for a thread; beyond this, sign-ins are refused instead of queued
+    private int queueCapacity = 200;
+}
@@ -0,0 +1,14 @@
+package app.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing queue is full. Sign-ins see it as a failed authentication;
+ * registration turns it into a "try again" message on the form.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
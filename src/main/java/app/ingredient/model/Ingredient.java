@@ -4,6 +4,7 @@ import app.shoppinglist.model.ShoppingListItem;
 import app.recipeingredient.model.RecipeIngredient;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,6 +17,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@BatchSize(size = 50)
 public class Ingredient {
 
     @Id
@@ -2,12 +2,47 @@ package app.ingredient.repository;
 
 import app.ingredient.model.Ingredient;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, UUID> {
     Optional<Ingredient> findByNameIgnoreCase(String normalizedName);
+
+    List<Ingredient> findByNameIn(Collection<String> normalizedNames);
+
+    /**
+     * Inserts the ingredient unless one with the same name already exists. Unlike
+     * save(), a concurrent insert of the same name doesn't fail the transaction.
+     * <p>
+     * MySQL syntax: the production database is MySQL and the tests run H2 with MODE=MYSQL.
+     * Moving to another database means rewriting this as that dialect's upsert (e.g. ON CONFLICT DO NOTHING).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ingredient (id, name, created_on, updated_on) " +
+            "VALUES (:id, :name, :createdOn, :createdOn) " +
+            "ON DUPLICATE KEY UPDATE name = name", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("name") String normalizedName,
+                       @Param("createdOn") LocalDateTime createdOn);
+
+    /**
+     * Locking read, so rows committed by other transactions after ours started are visible.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT i FROM Ingredient i WHERE i.name IN :names")
+    List<Ingredient> findByNameInForShare(@Param("names") Collection<String> normalizedNames);
+
+    List<Ingredient> findAllByOrderByUpdatedOnDesc(Pageable pageable);
 }
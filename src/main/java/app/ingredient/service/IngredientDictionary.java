@@ -0,0 +1,56 @@
+package app.ingredient.service;
+
+import app.config.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded, thread-safe map from normalized ingredient name to ingredient id.
+ * Least recently used names are evicted first, so a miss only means "ask the database".
+ */
+@Component
+public class IngredientDictionary {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, UUID> ids = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public UUID get(String normalizedName) {
+        return ids.get(normalizedName);
+    }
+
+    public void put(String normalizedName, UUID id) {
+        ids.put(normalizedName, id);
+    }
+
+    /**
+     * Adds the entry once the surrounding transaction commits, so a rolled back
+     * insert never leaves an id behind that doesn't exist in the database.
+     */
+    public void putAfterCommit(String normalizedName, UUID id) {
+        AfterCommit.run(() -> put(normalizedName, id));
+    }
+
+    public void clear() {
+        ids.clear();
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,37 @@
+package app.ingredient.service;
+
+import app.ingredient.model.Ingredient;
+import app.ingredient.repository.IngredientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class IngredientDictionaryInit implements ApplicationRunner {
+
+    private final IngredientRepository ingredientRepository;
+    private final IngredientDictionary ingredientDictionary;
+
+    @Autowired
+    public IngredientDictionaryInit(IngredientRepository ingredientRepository, IngredientDictionary ingredientDictionary) {
+        this.ingredientRepository = ingredientRepository;
+        this.ingredientDictionary = ingredientDictionary;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ingredientDictionary.clear();
+
+        // Most recently used ingredients first, in case there are more than the dictionary holds
+        for (Ingredient ingredient : ingredientRepository.findAllByOrderByUpdatedOnDesc(
+                PageRequest.of(0, IngredientDictionary.MAX_ENTRIES))) {
+            ingredientDictionary.put(IngredientDictionary.normalize(ingredient.getName()), ingredient.getId());
+        }
+
+        log.info("- Ingredient dictionary warmed with {} names", ingredientDictionary.size());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -15,28 +16,81 @@ import java.time.LocalDateTime;
 public class IngredientService {
 
     private final IngredientRepository ingredientRepository;
+    private final IngredientDictionary ingredientDictionary;
 
     @Autowired
-    public IngredientService(IngredientRepository ingredientRepository) {
+    public IngredientService(IngredientRepository ingredientRepository, IngredientDictionary ingredientDictionary) {
         this.ingredientRepository = ingredientRepository;
+        this.ingredientDictionary = ingredientDictionary;
     }
 
 
     public Ingredient findOrCreateIngredient(String name) {
-        String normalizedName = name.trim().toLowerCase();
-
-        return ingredientRepository.findByNameIgnoreCase(normalizedName)
-                .orElseGet(() -> {
-                    Ingredient newIngredient = Ingredient.builder()
-                            .name(normalizedName)
-                            .createdOn(LocalDateTime.now())
-                            .updatedOn(LocalDateTime.now())
-                            .build();
-
-                    Ingredient saved = ingredientRepository.save(newIngredient);
-                    log.info("Created new ingredient: {}", normalizedName);
-                    return saved;
-                });
+        return findOrCreateAll(List.of(name)).get(name);
+    }
+
+    /**
+     * Resolves every name to an ingredient, creating the missing ones.
+     * Names known to the dictionary cost no query; the rest are looked up with a single
+     * IN query and whatever is still missing is upserted, so concurrent creation is safe.
+     * The result is keyed by the names exactly as passed in; blank names are skipped.
+     */
+    public Map<String, Ingredient> findOrCreateAll(Collection<String> names) {
+        Map<String, Ingredient> byNormalizedName = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String name : names) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+
+            String normalizedName = IngredientDictionary.normalize(name);
+            if (byNormalizedName.containsKey(normalizedName) || missing.contains(normalizedName)) {
+                continue;
+            }
+
+            UUID id = ingredientDictionary.get(normalizedName);
+            if (id != null) {
+                byNormalizedName.put(normalizedName, ingredientRepository.getReferenceById(id));
+            } else {
+                missing.add(normalizedName);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Ingredient existing : ingredientRepository.findByNameIn(missing)) {
+                String normalizedName = IngredientDictionary.normalize(existing.getName());
+                byNormalizedName.put(normalizedName, existing);
+                ingredientDictionary.put(normalizedName, existing.getId());
+                missing.remove(normalizedName);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // Insert-if-absent in name order, so concurrent savers on any node neither trip the
+            // unique name constraint nor deadlock each other, then read back whichever row won.
+            // One statement per name: only names neither the dictionary nor the IN query above
+            // resolved get here, which is usually none and rarely more than a couple per recipe.
+            LocalDateTime now = LocalDateTime.now();
+            for (String normalizedName : new TreeSet<>(missing)) {
+                ingredientRepository.insertIfAbsent(UUID.randomUUID(), normalizedName, now);
+            }
+
+            for (Ingredient ingredient : ingredientRepository.findByNameInForShare(missing)) {
+                String normalizedName = IngredientDictionary.normalize(ingredient.getName());
+                byNormalizedName.put(normalizedName, ingredient);
+                ingredientDictionary.putAfterCommit(normalizedName, ingredient.getId());
+            }
+            log.info("Created or picked up new ingredients: {}", missing);
+        }
+
+        Map<String, Ingredient> result = new LinkedHashMap<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                result.put(name, byNormalizedName.get(IngredientDictionary.normalize(name)));
+            }
+        }
+        return result;
     }
 
     public Ingredient findByNameOptional(String name) {
@@ -44,10 +98,20 @@ public class IngredientService {
             return null;
         }
 
-        String normalizedName = name.trim().toLowerCase();
-        return ingredientRepository.findByNameIgnoreCase(normalizedName).orElse(null);
+        String normalizedName = IngredientDictionary.normalize(name);
+
+        UUID id = ingredientDictionary.get(normalizedName);
+        if (id != null) {
+            return ingredientRepository.getReferenceById(id);
+        }
+
+        Ingredient ingredient = ingredientRepository.findByNameIgnoreCase(normalizedName).orElse(null);
+        if (ingredient != null) {
+            ingredientDictionary.put(normalizedName, ingredient.getId());
+        }
+        return ingredient;
     }
 
 
 
-}
\ No newline at end of file
+}
@@ -11,7 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "meal-planning-svc", url = "http://localhost:8081/api/v1/meal-plans")
+@FeignClient(name = "meal-planning-svc", url = "${meal-planning-svc.base-url}/api/v1/meal-plans")
 public interface MealPlanningClient {
 
 
@@ -0,0 +1,50 @@
+package app.mealplanning.client;
+
+import app.mealplanning.client.dto.MealPlanRequest;
+import app.mealplanning.client.dto.MealPlanResponse;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * MealPlanningClient behind the mealPlanning bulkhead and circuit breaker, configured under
+ * resilience4j.*.instances.mealPlanning. Only the weekly GET is retried; adds and deletes are not.
+ * Failures surface as FeignException, CallNotPermittedException (breaker open) or BulkheadFullException.
+ */
+@Component
+public class ResilientMealPlanningClient {
+
+    public static final String MEAL_PLANNING = "mealPlanning";
+
+    private final MealPlanningClient mealPlanningClient;
+
+    @Autowired
+    public ResilientMealPlanningClient(MealPlanningClient mealPlanningClient) {
+        this.mealPlanningClient = mealPlanningClient;
+    }
+
+    @Retry(name = MEAL_PLANNING)
+    @CircuitBreaker(name = MEAL_PLANNING)
+    @Bulkhead(name = MEAL_PLANNING)
+    public ResponseEntity<List<MealPlanResponse>> getWeeklyMealPlans(UUID userId, String weekStart) {
+        return mealPlanningClient.getWeeklyMealPlans(userId, weekStart);
+    }
+
+    @CircuitBreaker(name = MEAL_PLANNING)
+    @Bulkhead(name = MEAL_PLANNING)
+    public ResponseEntity<MealPlanResponse> addMealPlan(MealPlanRequest requestBody) {
+        return mealPlanningClient.addMealPlan(requestBody);
+    }
+
+    @CircuitBreaker(name = MEAL_PLANNING)
+    @Bulkhead(name = MEAL_PLANNING)
+    public ResponseEntity<Void> deleteMealPlan(UUID mealPlanId, UUID userId) {
+        return mealPlanningClient.deleteMealPlan(mealPlanId, userId);
+    }
+}
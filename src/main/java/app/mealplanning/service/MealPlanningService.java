@@ -1,15 +1,18 @@
 package app.mealplanning.service;
 
 import app.exception.MealPlanningException;
-import app.mealplanning.client.MealPlanningClient;
+import app.mealplanning.client.ResilientMealPlanningClient;
 import app.mealplanning.client.dto.ApiMealType;
 import app.mealplanning.client.dto.MealPlanRequest;
 import app.mealplanning.client.dto.MealPlanResponse;
 import app.recipe.model.Recipe;
 import app.recipe.service.RecipeService;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -19,13 +22,16 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class MealPlanningService {
-    private final MealPlanningClient mealPlanningClient;
+    private final ResilientMealPlanningClient mealPlanningClient;
     private final RecipeService recipeService;
+    private final WeeklyMealPlanCache weeklyMealPlanCache;
 
     @Autowired
-    public MealPlanningService(MealPlanningClient mealPlanningClient, RecipeService recipeService) {
+    public MealPlanningService(ResilientMealPlanningClient mealPlanningClient, RecipeService recipeService,
+                               WeeklyMealPlanCache weeklyMealPlanCache) {
         this.mealPlanningClient = mealPlanningClient;
         this.recipeService = recipeService;
+        this.weeklyMealPlanCache = weeklyMealPlanCache;
     }
 
 
@@ -46,29 +52,47 @@ public class MealPlanningService {
                     .recipeId(recipeId)
                     .build();
 
-            mealPlanningClient.addMealPlan(request);
+            ResponseEntity<MealPlanResponse> response = mealPlanningClient.addMealPlan(request);
 
-        } catch (FeignException e) {
+            // Write the new plan into its cached week; without it in the response, refetch that week instead
+            if (response != null && response.getBody() != null) {
+                weeklyMealPlanCache.added(userId, response.getBody());
+            } else {
+                weeklyMealPlanCache.evict(userId, plannedDate);
+            }
+
+        } catch (FeignException | CallNotPermittedException | BulkheadFullException e) {
             log.error("Error adding meal plan: {}", e.getMessage());
             throw new MealPlanningException("Unable to add meal to your plan. Please try again.");
         }
     }
 
 
-    public List<MealPlanResponse> getWeeklyMealPlans(UUID userId, LocalDate weekStart) {
+    public WeeklyMealPlans getWeeklyMealPlans(UUID userId, LocalDate weekStart) {
+        LocalDate actualWeekStart = resolveWeekStart(weekStart);
+
+        Optional<WeeklyMealPlanCache.CachedWeek> cached = weeklyMealPlanCache.get(userId, actualWeekStart);
+        if (cached.isPresent() && cached.get().isFresh()) {
+            return new WeeklyMealPlans(cached.get().getMealPlans(), false);
+        }
+
         try {
-            LocalDate actualWeekStart = resolveWeekStart(weekStart);
-            return mealPlanningClient.getWeeklyMealPlans(userId, actualWeekStart.toString()).getBody();
-        } catch (FeignException e) {
+            List<MealPlanResponse> mealPlans = mealPlanningClient.getWeeklyMealPlans(userId, actualWeekStart.toString()).getBody();
+            mealPlans = mealPlans != null ? mealPlans : List.of();
+
+            weeklyMealPlanCache.put(userId, actualWeekStart, mealPlans);
+            return new WeeklyMealPlans(mealPlans, false);
+        } catch (FeignException | CallNotPermittedException | BulkheadFullException e) {
             log.error("Error getting weekly meal plans: {}", e.getMessage());
-            return List.of();
+            return new WeeklyMealPlans(cached.map(WeeklyMealPlanCache.CachedWeek::getMealPlans).orElse(List.of()), true);
         }
     }
 
     public void deleteMealPlan(UUID mealPlanId, UUID userId) {
         try {
             mealPlanningClient.deleteMealPlan(mealPlanId, userId);
-        } catch (FeignException e) {
+            weeklyMealPlanCache.removed(userId, mealPlanId);
+        } catch (FeignException | CallNotPermittedException | BulkheadFullException e) {
             log.error("Error deleting meal plan: {}", e.getMessage());
             throw new MealPlanningException("Unable to delete meal. Please try again.");
         }
@@ -76,9 +100,7 @@ public class MealPlanningService {
 
 
     public LocalDate resolveWeekStart(LocalDate weekStart) {
-        return (weekStart != null)
-                ? weekStart
-                : LocalDate.now().with(java.time.DayOfWeek.MONDAY);
+        return WeeklyMealPlanCache.weekStartOf(weekStart != null ? weekStart : LocalDate.now());
     }
 
 
@@ -0,0 +1,138 @@
+package app.mealplanning.service;
+
+import app.mealplanning.client.dto.MealPlanResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Weeks of meal plans already fetched, one entry per user and Monday in the weeklyMealPlans cache region,
+ * so the region's maximum size counts weeks and its TTL runs per week.
+ * A week younger than FRESH_FOR is served without calling the service; older copies are only kept
+ * to show, marked stale, while the service is unreachable. The region's TTL bounds how long that is.
+ * Adds and deletes go through here as well, so a user's own changes show up without a refetch.
+ * Each user also has one entry listing the Mondays cached for them, rewritten with every week, so a
+ * deleted plan can be found by id alone.
+ */
+@Component
+public class WeeklyMealPlanCache {
+
+    static final String REGION = "weeklyMealPlans";
+
+    static final Duration FRESH_FOR = Duration.ofMinutes(2);
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public WeeklyMealPlanCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public Optional<CachedWeek> get(UUID userId, LocalDate weekStart) {
+        return Optional.ofNullable(region().get(WeekKey.of(userId, weekStart), CachedWeek.class));
+    }
+
+    public void put(UUID userId, LocalDate weekStart, List<MealPlanResponse> mealPlans) {
+        store(WeekKey.of(userId, weekStart), new CachedWeek(List.copyOf(mealPlans), Instant.now()));
+    }
+
+    // Adds the new plan to the cached week containing its date, if that week is cached
+    public void added(UUID userId, MealPlanResponse mealPlan) {
+        if (mealPlan.getPlannedDate() == null) {
+            return;
+        }
+
+        WeekKey key = WeekKey.of(userId, mealPlan.getPlannedDate());
+        CachedWeek week = region().get(key, CachedWeek.class);
+        if (week == null) {
+            return;
+        }
+
+        List<MealPlanResponse> mealPlans = new ArrayList<>(week.getMealPlans());
+        mealPlans.add(mealPlan);
+        store(key, new CachedWeek(List.copyOf(mealPlans), week.getFetchedOn()));
+    }
+
+    // Drops the plan from whichever of the user's cached weeks holds it
+    public void removed(UUID userId, UUID mealPlanId) {
+        for (LocalDate weekStart : cachedWeekStarts(userId)) {
+            WeekKey key = new WeekKey(userId, weekStart);
+            CachedWeek week = region().get(key, CachedWeek.class);
+            if (week == null) {
+                continue;
+            }
+
+            List<MealPlanResponse> remaining = week.getMealPlans().stream()
+                    .filter(mealPlan -> !Objects.equals(mealPlan.getId(), mealPlanId))
+                    .toList();
+            if (remaining.size() < week.getMealPlans().size()) {
+                store(key, new CachedWeek(remaining, week.getFetchedOn()));
+                return;
+            }
+        }
+    }
+
+    public void evict(UUID userId, LocalDate date) {
+        region().evict(WeekKey.of(userId, date));
+    }
+
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY);
+    }
+
+    // Writing the Monday list alongside each week keeps it at least as young as every week it names
+    private void store(WeekKey key, CachedWeek week) {
+        region().put(key, week);
+
+        Set<LocalDate> weekStarts = new HashSet<>(cachedWeekStarts(key.userId()));
+        weekStarts.add(key.weekStart());
+        region().put(new CachedWeeksKey(key.userId()), Set.copyOf(weekStarts));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<LocalDate> cachedWeekStarts(UUID userId) {
+        Set<LocalDate> weekStarts = region().get(new CachedWeeksKey(userId), Set.class);
+        return weekStarts == null ? Set.of() : weekStarts;
+    }
+
+    private Cache region() {
+        return Objects.requireNonNull(cacheManager.getCache(REGION), "No cache region " + REGION);
+    }
+
+    private record WeekKey(UUID userId, LocalDate weekStart) {
+
+        static WeekKey of(UUID userId, LocalDate date) {
+            return new WeekKey(userId, weekStartOf(date));
+        }
+    }
+
+    private record CachedWeeksKey(UUID userId) {
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedWeek {
+
+        private final List<MealPlanResponse> mealPlans;
+        private final Instant fetchedOn;
+
+        public boolean isFresh() {
+            return fetchedOn.plus(FRESH_FOR).isAfter(Instant.now());
+        }
+    }
+}
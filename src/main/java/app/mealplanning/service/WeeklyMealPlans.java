@@ -0,0 +1,19 @@
+package app.mealplanning.service;
+
+import app.mealplanning.client.dto.MealPlanResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One week of meal plans for the planner page. Stale when the meal-planning service could not be reached,
+ * in which case the plans are the last copy this instance fetched, or empty if it never had one.
+ */
+@Getter
+@AllArgsConstructor
+public class WeeklyMealPlans {
+
+    private final List<MealPlanResponse> mealPlans;
+    private final boolean stale;
+}
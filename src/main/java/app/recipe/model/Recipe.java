@@ -15,12 +15,32 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_recipe_public_created", columnList = "is_public, deleted, created_on, id"),
+        @Index(name = "idx_recipe_author_created", columnList = "user_id, deleted, created_on, id")
+})
+// Fetch plans for RecipeRepository. Ingredient lines are a bag, so they never share a graph with another
+// collection: the joined rows would repeat every line once per category or tag.
+@NamedEntityGraph(name = Recipe.CARD_GRAPH, attributeNodes = {
+        @NamedAttributeNode("categories"),
+        @NamedAttributeNode("dietaryTags")
+})
+@NamedEntityGraph(name = Recipe.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode(value = "recipeIngredients", subgraph = "recipeIngredients")
+        },
+        subgraphs = @NamedSubgraph(name = "recipeIngredients", attributeNodes = @NamedAttributeNode("ingredient")))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Recipe {
+
+    public static final String CARD_GRAPH = "Recipe.card";
+    public static final String DETAIL_GRAPH = "Recipe.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -68,7 +88,7 @@ public class Recipe {
     private User author;
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    @OrderBy("createdOn ASC")
+    @OrderBy("position ASC, createdOn ASC")
     private List<RecipeIngredient> recipeIngredients = new ArrayList<>();
 
 
@@ -86,7 +106,11 @@ public class Recipe {
     @OrderBy("createdOn DESC")
     private List<Comment> comments = new ArrayList<>();
 
+    // Names pinned to what Hibernate generated before, RecipeRepository writes this table directly
     @ManyToMany
+    @JoinTable(name = "recipe_favorite_by",
+            joinColumns = @JoinColumn(name = "favorites_id"),
+            inverseJoinColumns = @JoinColumn(name = "favorite_by_id"))
     private Set<User> favoriteBy = new HashSet<>();
 
     @OneToMany(mappedBy = "recipe")
@@ -95,4 +119,19 @@ public class Recipe {
     @Column(nullable = false)
     private boolean deleted = false;
 
+    // Running rating aggregates, maintained by RecipeRepository bulk updates only.
+    // Not updatable through the entity so a recipe edit can't overwrite a concurrent rating change.
+    @Column(nullable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(nullable = false, updatable = false)
+    private int ratingCount;
+
+    public Double getAverageRating() {
+        if (ratingCount == 0) {
+            return null;
+        }
+        return (double) ratingSum / ratingCount;
+    }
+
 }
\ No newline at end of file
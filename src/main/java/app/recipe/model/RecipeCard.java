@@ -0,0 +1,56 @@
+package app.recipe.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One recipe as the list pages show it. Read straight into this class by RecipeRepository constructor
+ * queries, so listing recipes neither loads the instructions nor puts Recipe entities in the persistence context.
+ */
+@Getter
+public class RecipeCard {
+
+    // Cards abbreviate the description to 100 characters, so this is all that is read
+    public static final int SUMMARY_LENGTH = 200;
+
+    private final UUID id;
+    private final String title;
+    private final String summary;
+    private final String imageUrl;
+    private final Integer prepTimeMinutes;
+    private final Integer cookTimeMinutes;
+    private final Integer servingSize;
+    private final DifficultyLevel difficultyLevel;
+    private final Integer calories;
+    private final boolean isPublic;
+    private final LocalDateTime createdOn;
+    private final LocalDateTime updatedOn;
+    private final String authorUsername;
+
+    // Category names, filled in by RecipeService with one query per page
+    @Setter
+    private List<String> categories = new ArrayList<>();
+
+    public RecipeCard(UUID id, String title, String summary, String imageUrl, Integer prepTimeMinutes,
+                      Integer cookTimeMinutes, Integer servingSize, DifficultyLevel difficultyLevel, Integer calories,
+                      boolean isPublic, LocalDateTime createdOn, LocalDateTime updatedOn, String authorUsername) {
+        this.id = id;
+        this.title = title;
+        this.summary = summary;
+        this.imageUrl = imageUrl;
+        this.prepTimeMinutes = prepTimeMinutes;
+        this.cookTimeMinutes = cookTimeMinutes;
+        this.servingSize = servingSize;
+        this.difficultyLevel = difficultyLevel;
+        this.calories = calories;
+        this.isPublic = isPublic;
+        this.createdOn = createdOn;
+        this.updatedOn = updatedOn;
+        this.authorUsername = authorUsername;
+    }
+}
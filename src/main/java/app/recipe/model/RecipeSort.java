@@ -0,0 +1,22 @@
+package app.recipe.model;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orderings offered on the category page. NEWEST pages by keyset (see KeysetCursor), the others page by
+ * page number with the sort below, always ending on id so pages are stable.
+ */
+@Getter
+public enum RecipeSort {
+
+    NEWEST(Sort.by(Sort.Direction.DESC, "createdOn", "id")),
+    TITLE(Sort.by("title", "id")),
+    QUICKEST(Sort.by(Sort.Order.asc("prepTimeMinutes").nullsLast(), Sort.Order.asc("id")));
+
+    private final Sort sort;
+
+    RecipeSort(Sort sort) {
+        this.sort = sort;
+    }
+}
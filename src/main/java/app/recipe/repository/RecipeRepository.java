@@ -1,39 +1,207 @@
 package app.recipe.repository;
 
+import app.category.model.Category;
 import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.user.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, UUID> {
 
-    List<Recipe> findByAuthorAndDeletedFalseOrderByCreatedOnDesc(User user);
+    // Categories and dietary tags
+    @EntityGraph(Recipe.CARD_GRAPH)
+    Optional<Recipe> findWithCategoriesAndTagsById(UUID id);
+
+    // Author and ingredient lines with their ingredients
+    @EntityGraph(Recipe.DETAIL_GRAPH)
+    Optional<Recipe> findDetailById(UUID id);
+
+    long countByAuthorAndDeletedFalse(User author);
+
+    @Query("SELECT COUNT(f) FROM User u JOIN u.favorites f WHERE u.id = :userId AND f.deleted = false")
+    long countUserFavorites(@Param("userId") UUID userId);
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END " +
+            "FROM Recipe r JOIN r.favoriteBy u WHERE r.id = :recipeId AND u.id = :userId")
+    boolean existsFavoriteByUserIdAndRecipeId(@Param("userId") UUID userId, @Param("recipeId") UUID recipeId);
+
+    /**
+     * Writes the favorite row directly so neither side's collection has to be loaded. Favoriting twice is a no-op.
+     * <p>
+     * MySQL syntax: the production database is MySQL and the tests run H2 with MODE=MYSQL. On another
+     * database this needs that dialect's form, e.g. ON CONFLICT DO NOTHING.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO recipe_favorite_by (favorites_id, favorite_by_id) " +
+            "VALUES (:recipeId, :userId) " +
+            "ON DUPLICATE KEY UPDATE favorites_id = favorites_id", nativeQuery = true)
+    int insertFavorite(@Param("userId") UUID userId, @Param("recipeId") UUID recipeId);
+
+    @Modifying
+    @Query(value = "DELETE FROM recipe_favorite_by WHERE favorites_id = :recipeId AND favorite_by_id = :userId",
+            nativeQuery = true)
+    int deleteFavorite(@Param("userId") UUID userId, @Param("recipeId") UUID recipeId);
 
     List<Recipe> findByIsPublicTrue();
 
-    @Query("SELECT DISTINCT r FROM Recipe r " +
-            "LEFT JOIN FETCH r.categories " +
-            "LEFT JOIN FETCH r.author " +
-            "WHERE r IN (SELECT f FROM User u JOIN u.favorites f WHERE u.id = :userId) " +
-            "AND r.deleted = false " +
+    // ===== Recipe cards for the list pages, see RecipeCard =====
+
+    String CARD_SELECT = "SELECT new app.recipe.model.RecipeCard(r.id, r.title, " +
+            "SUBSTRING(r.description, 1, " + RecipeCard.SUMMARY_LENGTH + "), r.imageUrl, " +
+            "r.prepTimeMinutes, r.cookTimeMinutes, r.servingSize, r.difficultyLevel, r.calories, r.isPublic, " +
+            "r.createdOn, r.updatedOn, a.username) " +
+            "FROM Recipe r JOIN r.author a ";
+
+    interface CategoryName {
+        UUID getRecipeId();
+
+        String getName();
+    }
+
+    @Query("SELECT r.id AS recipeId, c.name AS name FROM Recipe r JOIN r.categories c WHERE r.id IN :recipeIds")
+    List<CategoryName> findCategoryNamesByRecipeIdIn(@Param("recipeIds") Collection<UUID> recipeIds);
+
+    @Query(CARD_SELECT +
+            "WHERE r.author = :author AND r.deleted = false " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    List<RecipeCard> findCardsByAuthor(@Param("author") User author);
+
+    @Query(CARD_SELECT +
+            "JOIN r.favoriteBy u " +
+            "WHERE u.id = :userId AND r.deleted = false " +
             "ORDER BY r.createdOn DESC")
-    List<Recipe> findUserFavoritesWithCategories(@Param("userId") UUID userId);
+    List<RecipeCard> findFavoriteCards(@Param("userId") UUID userId);
+
+    @Query(CARD_SELECT +
+            "WHERE r.id IN :ids AND r.isPublic = true AND r.deleted = false")
+    List<RecipeCard> findPublicCardsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // ===== Keyset pagination, ordered by (createdOn DESC, id DESC) =====
+
+    @Query(CARD_SELECT +
+            "WHERE r.isPublic = true AND r.deleted = false " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findPublicCardsFirstPage(Pageable pageable);
+
+    @Query(CARD_SELECT +
+            "WHERE r.isPublic = true AND r.deleted = false " +
+            "AND (r.createdOn < :createdOn OR (r.createdOn = :createdOn AND r.id < :id)) " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findPublicCardsAfter(@Param("createdOn") LocalDateTime createdOn,
+                                           @Param("id") UUID id,
+                                           Pageable pageable);
+
+    @Query(CARD_SELECT +
+            "WHERE r.author = :author AND r.deleted = false " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findCardsByAuthorFirstPage(@Param("author") User author, Pageable pageable);
+
+    @Query(CARD_SELECT +
+            "WHERE r.author = :author AND r.deleted = false " +
+            "AND (r.createdOn < :createdOn OR (r.createdOn = :createdOn AND r.id < :id)) " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findCardsByAuthorAfter(@Param("author") User author,
+                                             @Param("createdOn") LocalDateTime createdOn,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
+
+    // Sorted by the pageable, for the orderings keyset pagination doesn't cover
+    @Query(CARD_SELECT + "JOIN r.categories c " +
+            "WHERE c = :category AND r.isPublic = true AND r.deleted = false")
+    Slice<RecipeCard> findPublicCardsByCategory(@Param("category") Category category, Pageable pageable);
+
+    @Query(CARD_SELECT + "JOIN r.categories c " +
+            "WHERE c = :category AND r.isPublic = true AND r.deleted = false " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findPublicCardsByCategoryFirstPage(@Param("category") Category category, Pageable pageable);
+
+    @Query(CARD_SELECT + "JOIN r.categories c " +
+            "WHERE c = :category AND r.isPublic = true AND r.deleted = false " +
+            "AND (r.createdOn < :createdOn OR (r.createdOn = :createdOn AND r.id < :id)) " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Slice<RecipeCard> findPublicCardsByCategoryAfter(@Param("category") Category category,
+                                                     @Param("createdOn") LocalDateTime createdOn,
+                                                     @Param("id") UUID id,
+                                                     Pageable pageable);
+
+    long countByIsPublicTrueAndDeletedFalse();
+
+    @Query("SELECT COUNT(r) FROM Recipe r JOIN r.categories c " +
+            "WHERE c = :category AND r.isPublic = true AND r.deleted = false")
+    long countPublicByCategory(@Param("category") Category category);
+
+    @Modifying
+    @Query("UPDATE Recipe r SET r.ratingSum = r.ratingSum + :ratingDelta, " +
+            "r.ratingCount = r.ratingCount + :countDelta " +
+            "WHERE r.id = :recipeId")
+    int adjustRatingAggregate(@Param("recipeId") UUID recipeId,
+                              @Param("ratingDelta") int ratingDelta,
+                              @Param("countDelta") int countDelta);
+
+    @Query("SELECT r.ratingCount FROM Recipe r WHERE r.id = :recipeId")
+    int findRatingCountById(@Param("recipeId") UUID recipeId);
+
+    // ===== Rating aggregate repair, batched in id order =====
+
+    interface RatingTotals {
+        UUID getRecipeId();
+
+        long getRatingSum();
+
+        int getRatingCount();
+
+        long getCommentRatingSum();
+
+        long getCommentCount();
+    }
+
+    String RATING_TOTALS_SELECT = "SELECT r.id AS recipeId, r.ratingSum AS ratingSum, r.ratingCount AS ratingCount, " +
+            "COALESCE(SUM(c.rating), 0) AS commentRatingSum, COUNT(c) AS commentCount " +
+            "FROM Recipe r LEFT JOIN Comment c ON c.recipe = r ";
+
+    @Query(RATING_TOTALS_SELECT +
+            "GROUP BY r.id, r.ratingSum, r.ratingCount ORDER BY r.id")
+    Slice<RatingTotals> findRatingTotalsFirstPage(Pageable pageable);
+
+    @Query(RATING_TOTALS_SELECT +
+            "WHERE r.id > :after " +
+            "GROUP BY r.id, r.ratingSum, r.ratingCount ORDER BY r.id")
+    Slice<RatingTotals> findRatingTotalsAfter(@Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Sets the aggregates only if they still hold the values read with the comment totals. A comment
+     * committed in between moves them, so the row is left for the next run instead of losing that change.
+     */
+    @Modifying
+    @Query("UPDATE Recipe r SET r.ratingSum = :ratingSum, r.ratingCount = :ratingCount " +
+            "WHERE r.id = :recipeId AND r.ratingSum = :seenRatingSum AND r.ratingCount = :seenRatingCount")
+    int repairRatingAggregate(@Param("recipeId") UUID recipeId,
+                              @Param("seenRatingSum") long seenRatingSum,
+                              @Param("seenRatingCount") int seenRatingCount,
+                              @Param("ratingSum") long ratingSum,
+                              @Param("ratingCount") int ratingCount);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.isPublic = true AND r.deleted = false ORDER BY r.id")
+    Slice<UUID> findPublicRecipeIds(Pageable pageable);
 
-    // ===== NEW: SEARCH METHOD =====
     @Query("SELECT DISTINCT r FROM Recipe r " +
-            "LEFT JOIN FETCH r.categories " +
-            "LEFT JOIN FETCH r.author " +
-            "WHERE r.deleted = false " +
-            "AND r.isPublic = true " +
-            "AND LOWER(r.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-            "ORDER BY r.createdOn DESC")
-    List<Recipe> searchPublicRecipesByTitle(@Param("searchTerm") String searchTerm);
+            "LEFT JOIN FETCH r.recipeIngredients ri " +
+            "LEFT JOIN FETCH ri.ingredient " +
+            "WHERE r.id IN :ids")
+    List<Recipe> findAllWithIngredientsByIdIn(@Param("ids") Collection<UUID> ids);
 }
-
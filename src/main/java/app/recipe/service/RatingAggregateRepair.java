@@ -0,0 +1,63 @@
+package app.recipe.service;
+
+import app.recipe.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rebuilds Recipe.ratingSum/ratingCount from the comments table, batch by batch in id order. Each batch
+ * reads the recipes with their comment totals in one GROUP BY and repairs the drifted ones in its own
+ * transaction, so comment writes on other recipes are never blocked.
+ * <p>
+ * Also runs once at startup to backfill recipes commented on before the aggregates existed. Until that
+ * first pass reaches a recipe, its rating shows as not rated yet.
+ */
+@Slf4j
+@Component
+public class RatingAggregateRepair implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeService recipeService;
+
+    @Autowired
+    public RatingAggregateRepair(RecipeRepository recipeRepository, RecipeService recipeService) {
+        this.recipeRepository = recipeRepository;
+        this.recipeService = recipeService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int repaired = repairAll();
+
+        log.info("- Rating aggregates checked, {} recipes repaired", repaired);
+    }
+
+    public int repairAll() {
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+        Slice<RecipeRepository.RatingTotals> batch = recipeRepository.findRatingTotalsFirstPage(pageable);
+        int repaired = 0;
+
+        while (batch.hasContent()) {
+            List<RecipeRepository.RatingTotals> totals = batch.getContent();
+            repaired += recipeService.repairRatingAggregates(totals);
+
+            if (!batch.hasNext()) {
+                break;
+            }
+            UUID last = totals.get(totals.size() - 1).getRecipeId();
+            batch = recipeRepository.findRatingTotalsAfter(last, pageable);
+        }
+        return repaired;
+    }
+}
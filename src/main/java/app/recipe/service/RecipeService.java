@@ -1,16 +1,27 @@
 package app.recipe.service;
 
 import app.category.model.Category;
+import app.comment.service.RecipeCommentStatistics;
 import app.exception.RecipeNotFoundException;
 import app.exception.UnauthorizedAccessException;
 import app.ingredient.model.Ingredient;
 import app.ingredient.service.IngredientService;
 import app.recipeingredient.model.RecipeIngredient;
+import app.search.service.RecipeSearchIndex;
+import app.web.dto.KeysetCursor;
 import app.web.dto.RecipeIngredientRequest;
 import app.web.dto.RecipeUpdateRequest;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
+import app.recipe.model.RecipeSort;
 import app.recipe.repository.RecipeRepository;
 import app.user.model.User;
 import app.category.service.CategoryService;
@@ -32,20 +43,32 @@ import java.util.stream.Collectors;
 @Transactional
 public class RecipeService {
 
+    public static final int PAGE_SIZE = 12;
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
     private final RecipeRepository recipeRepository;
     private final CategoryService categoryService;
     private final IngredientService  ingredientService;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeCommentStatistics recipeCommentStatistics;
 
 
 
     public RecipeService(RecipeRepository recipeRepository, CategoryService categoryService,
-                         IngredientService ingredientService) {
+                         IngredientService ingredientService, RecipeSearchIndex recipeSearchIndex,
+                         RecipeCommentStatistics recipeCommentStatistics) {
         this.recipeRepository = recipeRepository;
         this.categoryService = categoryService;
        this.ingredientService = ingredientService;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeCommentStatistics = recipeCommentStatistics;
     }
 
 
+    @Caching(evict = {
+            @CacheEvict(value = "userRecipeCounts", key = "#author.id"),
+            @CacheEvict(value = "categoryRecipeCounts", allEntries = true)
+    })
     public Recipe createRecipe(RecipeCreateRequest recipeCreateRequest, User author) {
         Set<Category> categories = categoryService.findCategoriesByNames(recipeCreateRequest.getCategoryNames());
 
@@ -80,13 +103,15 @@ public class RecipeService {
         if (recipeCreateRequest.getRecipeIngredients() != null &&
                 !recipeCreateRequest.getRecipeIngredients().isEmpty()) {
 
+            Map<String, Ingredient> ingredients = resolveIngredients(recipeCreateRequest.getRecipeIngredients());
+
             for (RecipeIngredientRequest ingReq : recipeCreateRequest.getRecipeIngredients()) {
 
                 if (ingReq.getIngredientName() == null || ingReq.getIngredientName().isBlank()) {
                     continue;
                 }
 
-                Ingredient ingredient = ingredientService.findOrCreateIngredient(ingReq.getIngredientName());
+                Ingredient ingredient = ingredients.get(ingReq.getIngredientName());
 
                 RecipeIngredient recipeIngredient = RecipeIngredient.builder()
                         .recipe(recipe)
@@ -94,6 +119,7 @@ public class RecipeService {
                         .quantity(ingReq.getQuantity())
                         .unit(ingReq.getUnit())
                         .notes(ingReq.getNotes())
+                        .position(recipe.getRecipeIngredients().size() + 1)
                         .build();
 
                 recipe.getRecipeIngredients().add(recipeIngredient);
@@ -102,15 +128,127 @@ public class RecipeService {
             recipe = recipeRepository.save(recipe);
         }
 
+        recipeSearchIndex.indexAfterCommit(recipe);
+        if (recipe.isPublic()) {
+            recipeCommentStatistics.publicRecipeAdded();
+        }
+
         return recipe;
     }
 
+    /**
+     * Brings the recipe's ingredient rows in line with the submitted lines, touching only what changed.
+     * Lines are numbered 1..n in submitted order. A row whose ingredient and position both match a line
+     * is kept and only updated if its quantity, unit or notes changed, so a recipe that lists the same
+     * ingredient twice keeps each row on its own line. A row left over after that is reused for a moved
+     * line of the same ingredient, an UPDATE of its position instead of a DELETE and an INSERT. Rows still
+     * unmatched are removed and lines still without a row are inserted.
+     */
+    private void syncRecipeIngredients(Recipe recipe, List<RecipeIngredientRequest> requests) {
+        List<RecipeIngredient> current = recipe.getRecipeIngredients();
+
+        List<RecipeIngredientRequest> lines = new ArrayList<>();
+        if (requests != null) {
+            for (RecipeIngredientRequest ingReq : requests) {
+                if (ingReq.getIngredientName() != null && !ingReq.getIngredientName().isBlank()) {
+                    lines.add(ingReq);
+                }
+            }
+        }
+        Map<String, Ingredient> ingredients = lines.isEmpty() ? Map.of() : resolveIngredients(lines);
+
+        Map<LinePosition, RecipeIngredient> byLinePosition = new HashMap<>();
+        for (RecipeIngredient existing : current) {
+            byLinePosition.putIfAbsent(new LinePosition(existing.getIngredient().getId(), existing.getPosition()), existing);
+        }
+
+        RecipeIngredient[] matched = new RecipeIngredient[lines.size()];
+        Set<RecipeIngredient> kept = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Ingredient ingredient = ingredients.get(lines.get(i).getIngredientName());
+            matched[i] = byLinePosition.remove(new LinePosition(ingredient.getId(), i + 1));
+            if (matched[i] != null) {
+                kept.add(matched[i]);
+            }
+        }
+
+        Map<UUID, Deque<RecipeIngredient>> leftoverByIngredient = new HashMap<>();
+        for (RecipeIngredient existing : current) {
+            if (!kept.contains(existing)) {
+                leftoverByIngredient.computeIfAbsent(existing.getIngredient().getId(), id -> new ArrayDeque<>())
+                        .add(existing);
+            }
+        }
+
+        List<RecipeIngredient> added = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            RecipeIngredientRequest ingReq = lines.get(i);
+            Ingredient ingredient = ingredients.get(ingReq.getIngredientName());
+            RecipeIngredient recipeIngredient = matched[i];
+
+            if (recipeIngredient == null) {
+                Deque<RecipeIngredient> leftovers = leftoverByIngredient.get(ingredient.getId());
+                recipeIngredient = leftovers != null ? leftovers.pollFirst() : null;
+            }
+            if (recipeIngredient == null) {
+                recipeIngredient = RecipeIngredient.builder()
+                        .recipe(recipe)
+                        .ingredient(ingredient)
+                        .build();
+                added.add(recipeIngredient);
+            }
+
+            // Unchanged values leave the row clean, so no UPDATE is issued for it
+            recipeIngredient.setQuantity(ingReq.getQuantity());
+            recipeIngredient.setUnit(ingReq.getUnit());
+            recipeIngredient.setNotes(ingReq.getNotes());
+            recipeIngredient.setPosition(i + 1);
+            kept.add(recipeIngredient);
+        }
+
+        // Rows left unmatched are dropped here and deleted through orphanRemoval
+        current.removeIf(recipeIngredient -> !kept.contains(recipeIngredient));
+        current.addAll(added);
+        current.sort(Comparator.comparingInt(RecipeIngredient::getPosition));
+    }
+
+    private record LinePosition(UUID ingredientId, int position) {
+    }
+
+    private Map<String, Ingredient> resolveIngredients(List<RecipeIngredientRequest> recipeIngredients) {
+        List<String> names = new ArrayList<>();
+        for (RecipeIngredientRequest ingReq : recipeIngredients) {
+            names.add(ingReq.getIngredientName());
+        }
+        return ingredientService.findOrCreateAll(names);
+    }
+
     public Recipe getById(UUID id) {
         return recipeRepository.findById(id)
                 .orElseThrow(() -> new RecipeNotFoundException("Recipe with id[%s] does not exist.".formatted(id)));
     }
 
+    /**
+     * Loads everything the detail and edit pages render: author and ingredient lines with their ingredients in
+     * one query, then categories and dietary tags in a second one. Inside one persistence context both queries
+     * return the same instance; otherwise the fetched collections are copied onto the detail instance.
+     */
+    public Recipe getDetailById(UUID id) {
+        Recipe recipe = recipeRepository.findDetailById(id)
+                .orElseThrow(() -> new RecipeNotFoundException("Recipe with id[%s] does not exist.".formatted(id)));
+
+        recipeRepository.findWithCategoriesAndTagsById(id).ifPresent(withCategories -> {
+            if (withCategories != recipe) {
+                recipe.setCategories(withCategories.getCategories());
+                recipe.setDietaryTags(withCategories.getDietaryTags());
+            }
+        });
 
+        return recipe;
+    }
+
+
+    @CacheEvict(value = "categoryRecipeCounts", allEntries = true)
     public Recipe updateRecipe(UUID recipeId, RecipeUpdateRequest recipeUpdateRequest, User currentUser) {
         Recipe recipe = getById(recipeId);
 
@@ -119,6 +257,7 @@ public class RecipeService {
         }
 
         Set<Category> categories = categoryService.findCategoriesByNames(recipeUpdateRequest.getCategoryNames());
+        boolean wasPublic = recipe.isPublic();
 
         recipe.setTitle(recipeUpdateRequest.getTitle());
         recipe.setDescription(recipeUpdateRequest.getDescription());
@@ -149,35 +288,26 @@ public class RecipeService {
 
         recipe.setUpdatedOn(LocalDateTime.now());
 
-        recipe.getRecipeIngredients().clear();
+        syncRecipeIngredients(recipe, recipeUpdateRequest.getRecipeIngredients());
 
-        if (recipeUpdateRequest.getRecipeIngredients() != null &&
-                !recipeUpdateRequest.getRecipeIngredients().isEmpty()) {
+        Recipe updatedRecipe = recipeRepository.save(recipe);
+        recipeSearchIndex.indexAfterCommit(updatedRecipe);
 
-            for (RecipeIngredientRequest ingReq : recipeUpdateRequest.getRecipeIngredients()) {
-
-                if (ingReq.getIngredientName() == null || ingReq.getIngredientName().isBlank()) {
-                    continue;
-                }
-
-                Ingredient ingredient = ingredientService.findOrCreateIngredient(ingReq.getIngredientName());
-
-                RecipeIngredient recipeIngredient = RecipeIngredient.builder()
-                        .recipe(recipe)
-                        .ingredient(ingredient)
-                        .quantity(ingReq.getQuantity())
-                        .unit(ingReq.getUnit())
-                        .notes(ingReq.getNotes())
-                        .build();
-
-                recipe.getRecipeIngredients().add(recipeIngredient);
-            }
+        if (!wasPublic && updatedRecipe.isPublic()) {
+            recipeCommentStatistics.publicRecipeAdded();
+        } else if (wasPublic && !updatedRecipe.isPublic()) {
+            recipeCommentStatistics.publicRecipeRemoved();
         }
 
-        return recipeRepository.save(recipe);
+        return updatedRecipe;
     }
 
 
+    @Caching(evict = {
+            @CacheEvict(value = "userRecipeCounts", key = "#currentUser.id"),
+            @CacheEvict(value = "userFavoriteCounts", allEntries = true),
+            @CacheEvict(value = "categoryRecipeCounts", allEntries = true)
+    })
     public void deleteRecipe(UUID recipeId, User currentUser) {
         Recipe recipe = getById(recipeId);
 
@@ -187,6 +317,10 @@ public class RecipeService {
 
         recipe.setDeleted(true);
         recipeRepository.save(recipe);
+        recipeSearchIndex.removeAfterCommit(recipeId);
+        if (recipe.isPublic()) {
+            recipeCommentStatistics.publicRecipeRemoved();
+        }
     }
 
 
@@ -196,58 +330,130 @@ public class RecipeService {
         return recipe.getAuthor().getId().equals(user.getId());
     }
 
+    /**
+     * Deleted recipes, and private recipes viewed by anyone but their author, are reported as not found
+     * so their ids can't be probed. The viewer is null for anonymous visitors.
+     */
+    public void requireVisible(Recipe recipe, User viewer) {
+        boolean visible = !recipe.isDeleted() && (recipe.isPublic() || (viewer != null && isAuthor(recipe, viewer)));
 
+        if (!visible) {
+            throw new RecipeNotFoundException("Recipe with id[%s] does not exist.".formatted(recipe.getId()));
+        }
+    }
 
-    public List<Recipe> getRecipesByUser(User user, Integer limit) {
-        List<Recipe> recipes = recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user);
+    /**
+     * Applies the deltas with one atomic UPDATE and returns the rating count it produced. The UPDATE
+     * holds the row lock until commit, so the count read back includes every committed comment plus
+     * this transaction's own change.
+     */
+    public int adjustRatingAggregate(UUID recipeId, int ratingDelta, int countDelta) {
+        recipeRepository.adjustRatingAggregate(recipeId, ratingDelta, countDelta);
+        return recipeRepository.findRatingCountById(recipeId);
+    }
 
+    /**
+     * Repairs the aggregates in one batch of totals read by RatingAggregateRepair, in a single short transaction.
+     * Returns how many recipes were actually corrected.
+     */
+    public int repairRatingAggregates(List<RecipeRepository.RatingTotals> batch) {
+        int repaired = 0;
+        for (RecipeRepository.RatingTotals totals : batch) {
+            if (totals.getRatingSum() != totals.getCommentRatingSum()
+                    || totals.getRatingCount() != totals.getCommentCount()) {
+                repaired += recipeRepository.repairRatingAggregate(totals.getRecipeId(),
+                        totals.getRatingSum(), totals.getRatingCount(),
+                        totals.getCommentRatingSum(), (int) totals.getCommentCount());
+            }
+        }
+        return repaired;
+    }
+
+
+
+    public List<RecipeCard> getRecipesByUser(User user, Integer limit) {
         if (limit != null && limit > 0) {
-            return recipes.stream().limit(limit).toList();
+            return withCategories(recipeRepository.findCardsByAuthorFirstPage(user, PageRequest.of(0, limit)).getContent());
+        }
+
+        return withCategories(recipeRepository.findCardsByAuthor(user));
+    }
+
+    public Slice<RecipeCard> getRecipesByUserPage(User user, KeysetCursor after) {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        if (after == null) {
+            return withCategories(recipeRepository.findCardsByAuthorFirstPage(user, pageable));
+        }
+        return withCategories(recipeRepository.findCardsByAuthorAfter(user, after.getCreatedOn(), after.getId(), pageable));
+    }
+
+    public Slice<RecipeCard> getPublicRecipesPage(KeysetCursor after) {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        if (after == null) {
+            return withCategories(recipeRepository.findPublicCardsFirstPage(pageable));
+        }
+        return withCategories(recipeRepository.findPublicCardsAfter(after.getCreatedOn(), after.getId(), pageable));
+    }
+
+    public Slice<RecipeCard> getPublicRecipesPage(Category category, KeysetCursor after) {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        if (after == null) {
+            return withCategories(recipeRepository.findPublicCardsByCategoryFirstPage(category, pageable));
         }
+        return withCategories(recipeRepository.findPublicCardsByCategoryAfter(category, after.getCreatedOn(), after.getId(), pageable));
+    }
 
-        return recipes;
+    public long countPublicRecipes() {
+        return recipeRepository.countByIsPublicTrueAndDeletedFalse();
     }
 
-    public List<Recipe> getPublicRecipes(Category category) {
-        return category.getRecipes().stream()
-                .filter(Recipe::isPublic)
-                .filter(recipe -> !recipe.isDeleted())
-                .collect(Collectors.toList());
+    public long countPublicRecipes(Category category) {
+        return recipeRepository.countPublicByCategory(category);
+    }
+
+    public Slice<RecipeCard> getPublicRecipesPage(Category category, RecipeSort sort, int page) {
+        Pageable pageable = PageRequest.of(page, PAGE_SIZE, sort.getSort());
+        return withCategories(recipeRepository.findPublicCardsByCategory(category, pageable));
     }
 
 
+    @CacheEvict(value = "userFavoriteCounts", key = "#user.id")
     public void addToFavorites(User user, UUID recipeId) {
-        Recipe recipe = getById(recipeId);
-        user.getFavorites().add(recipe);
-         recipe.getFavoriteBy().add(user);
-         recipeRepository.save(recipe);
+        ensureExists(recipeId);
+        recipeRepository.insertFavorite(user.getId(), recipeId);
     }
 
 
 
-    public List<Recipe> getUserFavorites(UUID userId) {
-        return recipeRepository.findUserFavoritesWithCategories(userId);
+    public List<RecipeCard> getUserFavorites(UUID userId) {
+        return withCategories(recipeRepository.findFavoriteCards(userId));
     }
 
 
     public boolean isFavorite(Recipe recipe, User user) {
-        return user.getFavorites().contains(recipe);
+        return recipeRepository.existsFavoriteByUserIdAndRecipeId(user.getId(), recipe.getId());
     }
 
 
+    @CacheEvict(value = "userFavoriteCounts", key = "#user.id")
     public void removeFromFavorites(User user, UUID recipeId) {
-        Recipe recipe = getById(recipeId);
-        user.getFavorites().remove(recipe);
-        recipe.getFavoriteBy().remove(user);
-        recipeRepository.save(recipe);
+        ensureExists(recipeId);
+        recipeRepository.deleteFavorite(user.getId(), recipeId);
+    }
 
+    private void ensureExists(UUID recipeId) {
+        if (!recipeRepository.existsById(recipeId)) {
+            throw new RecipeNotFoundException("Recipe with id[%s] does not exist.".formatted(recipeId));
+        }
     }
-    public int countUserRecipes(User user) {
-        return recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user).size();
+    @Cacheable(value = "userRecipeCounts", key = "#user.id")
+    public long countUserRecipes(User user) {
+        return recipeRepository.countByAuthorAndDeletedFalse(user);
     }
 
-    public int countUserFavorites(UUID userId) {
-        return getUserFavorites(userId).size();
+    @Cacheable(value = "userFavoriteCounts", key = "#userId")
+    public long countUserFavorites(UUID userId) {
+        return recipeRepository.countUserFavorites(userId);
     }
 
 
@@ -256,7 +462,7 @@ public class RecipeService {
     }
 
     public byte[] generateRecipePdf(UUID recipeId) {
-        Recipe recipe = recipeRepository.findById(recipeId)
+        Recipe recipe = recipeRepository.findDetailById(recipeId)
                 .orElseThrow(() -> new RecipeNotFoundException("Recipe not found"));
 
         ByteArrayOutputStream output = new ByteArrayOutputStream();
@@ -348,17 +554,47 @@ public class RecipeService {
         return output.toByteArray();
     }
 
-    //serach po title
-    public List<Recipe> searchRecipes(String searchTerm) {
+    //search - ranked by the in-memory index, then loaded by id
+    public List<RecipeCard> searchRecipes(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return getPublicRecipesPage(null).getContent();
+        }
 
-            return recipeRepository.findByIsPublicTrue().stream()
-                    .filter(recipe -> !recipe.isDeleted())
-                    .sorted((r1, r2) -> r2.getCreatedOn().compareTo(r1.getCreatedOn()))
-                    .collect(Collectors.toList());
+        List<UUID> rankedIds = recipeSearchIndex.search(searchTerm, SEARCH_RESULT_LIMIT);
+        if (rankedIds.isEmpty()) {
+            return List.of();
         }
 
-        return recipeRepository.searchPublicRecipesByTitle(searchTerm.trim());
+        Map<UUID, RecipeCard> cardsById = recipeRepository.findPublicCardsByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(RecipeCard::getId, card -> card));
+
+        return withCategories(rankedIds.stream()
+                .map(cardsById::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    private Slice<RecipeCard> withCategories(Slice<RecipeCard> cards) {
+        withCategories(cards.getContent());
+        return cards;
+    }
+
+    /**
+     * Fills in the category names of all cards with a single query.
+     */
+    private List<RecipeCard> withCategories(List<RecipeCard> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+
+        Map<UUID, RecipeCard> cardsById = new HashMap<>();
+        for (RecipeCard card : cards) {
+            cardsById.put(card.getId(), card);
+        }
+        for (RecipeRepository.CategoryName categoryName : recipeRepository.findCategoryNamesByRecipeIdIn(cardsById.keySet())) {
+            cardsById.get(categoryName.getRecipeId()).getCategories().add(categoryName.getName());
+        }
+        return cards;
     }
 
 }
\ No newline at end of file
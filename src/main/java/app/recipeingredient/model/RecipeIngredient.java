@@ -36,6 +36,9 @@ public class RecipeIngredient {
     @JoinColumn(name = "ingredient_id", nullable = false)
     private Ingredient ingredient;
 
+    @Column(nullable = false)
+    private int position; // 1-based place of the line within its recipe, 0 only on rows older than the column
+
     @Column(nullable = false)
     private LocalDateTime createdOn;
 
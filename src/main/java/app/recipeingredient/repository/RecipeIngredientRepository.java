@@ -3,6 +3,7 @@ package app.recipeingredient.repository;
 import app.recipeingredient.model.RecipeIngredient;
 import app.recipe.model.Recipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +12,11 @@ import java.util.UUID;
 @Repository
 public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, UUID> {
     List<RecipeIngredient> findByRecipe(Recipe recipe);
+
+    // Only rows written before the position column existed have position 0. The position index turns
+    // this into an empty index lookup once they have all been backfilled.
+    @Query("SELECT DISTINCT ri.recipe.id FROM RecipeIngredient ri WHERE ri.position = 0")
+    List<UUID> findRecipeIdsWithUnpositionedIngredients();
+
+    List<RecipeIngredient> findByRecipeIdOrderByCreatedOnAscIdAsc(UUID recipeId);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package app.recipeingredient.service;
+
+import app.recipeingredient.model.RecipeIngredient;
+import app.recipeingredient.repository.RecipeIngredientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backfills the position column for ingredient rows written before it existed. Schema update adds
+ * the column with 0 on every row, while every line written since starts at 1, so a recipe with a row
+ * at 0 gets its rows renumbered in the order they were originally inserted (createdOn, then id).
+ * The startup check scans the table; the column has no index of its own since nothing else
+ * filters on it.
+ */
+@Slf4j
+@Component
+public class RecipeIngredientPositionInit implements ApplicationRunner {
+
+    private final RecipeIngredientRepository recipeIngredientRepository;
+
+    @Autowired
+    public RecipeIngredientPositionInit(RecipeIngredientRepository recipeIngredientRepository) {
+        this.recipeIngredientRepository = recipeIngredientRepository;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<UUID> recipeIds = recipeIngredientRepository.findRecipeIdsWithUnpositionedIngredients();
+
+        for (UUID recipeId : recipeIds) {
+            List<RecipeIngredient> rows = recipeIngredientRepository.findByRecipeIdOrderByCreatedOnAscIdAsc(recipeId);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setPosition(i + 1);
+            }
+        }
+
+        if (!recipeIds.isEmpty()) {
+            log.info("- Ingredient positions backfilled for {} recipes", recipeIds.size());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package app.scheduler;
 
 import app.comment.repository.CommentRepository;
+import app.comment.service.RecipeCommentStatistics;
 import app.recipe.repository.RecipeRepository;
+import app.recipe.service.RatingAggregateRepair;
 import app.user.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,13 +17,19 @@ public class CommentScheduler {
     private final RecipeRepository recipeRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
+    private final RecipeCommentStatistics recipeCommentStatistics;
+    private final RatingAggregateRepair ratingAggregateRepair;
 
     public CommentScheduler(RecipeRepository recipeRepository,
                             UserRepository userRepository,
-                            CommentRepository commentRepository) {
+                            CommentRepository commentRepository,
+                            RecipeCommentStatistics recipeCommentStatistics,
+                            RatingAggregateRepair ratingAggregateRepair) {
         this.recipeRepository = recipeRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
+        this.recipeCommentStatistics = recipeCommentStatistics;
+        this.ratingAggregateRepair = ratingAggregateRepair;
     }
 
 
@@ -44,18 +52,25 @@ public class CommentScheduler {
    @Scheduled(fixedRate = 1800000)
     @Transactional(readOnly = true)
     public void recipeCommentAnalysis() {
-        log.info("Analyzing recipe comment coverage");
+        RecipeCommentStatistics.Snapshot before = recipeCommentStatistics.snapshot();
 
-        long totalPublicRecipes = recipeRepository.findByIsPublicTrue().size();
+        long totalPublicRecipes = recipeRepository.countByIsPublicTrueAndDeletedFalse();
         long totalComments = commentRepository.count();
+        long recipesWithComments = commentRepository.countDistinctRecipes();
 
-
-        long recipesWithComments = commentRepository.findAll().stream()
-                .map(comment -> comment.getRecipe().getId())
-                .distinct()
-                .count();
+        recipeCommentStatistics.reconcile(before, totalComments, recipesWithComments, totalPublicRecipes);
 
         log.info("Recipe analysis: {}/{} recipes have comments, {} total comments",
                 recipesWithComments, totalPublicRecipes, totalComments);
     }
+
+    // Startup is covered by RatingAggregateRepair itself
+    @Scheduled(initialDelay = 21600000, fixedRate = 21600000)
+    public void rebuildRatingAggregates() {
+        int repaired = ratingAggregateRepair.repairAll();
+
+        if (repaired > 0) {
+            log.warn("Rating aggregates repaired for {} recipes", repaired);
+        }
+    }
 }
\ No newline at end of file
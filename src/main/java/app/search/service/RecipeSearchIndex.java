@@ -0,0 +1,236 @@
+package app.search.service;
+
+import app.config.AfterCommit;
+import app.recipe.model.Recipe;
+import app.recipeingredient.model.RecipeIngredient;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over public recipes, ranked with BM25.
+ * Covers title, description, instructions and ingredient names; title terms
+ * are weighted higher. The last query term also matches as a prefix so the
+ * search box keeps working while the user is still typing.
+ */
+@Component
+public class RecipeSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int INGREDIENT_WEIGHT = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, Set<String>> documentTerms = new HashMap<>();
+    private final Map<UUID, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds or replaces the recipe. Private or deleted recipes are removed instead.
+     */
+    public void index(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return;
+        }
+        if (!recipe.isPublic() || recipe.isDeleted()) {
+            remove(recipe.getId());
+            return;
+        }
+
+        put(recipe.getId(), termFrequencies(recipe));
+    }
+
+    /**
+     * Indexes the recipe once the surrounding transaction commits, so a rolled back
+     * write never shows up in search. Terms are read now, while the recipe's
+     * ingredients can still be loaded.
+     */
+    public void indexAfterCommit(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return;
+        }
+        if (!recipe.isPublic() || recipe.isDeleted()) {
+            removeAfterCommit(recipe.getId());
+            return;
+        }
+
+        UUID recipeId = recipe.getId();
+        Map<String, Integer> termFrequencies = termFrequencies(recipe);
+        AfterCommit.run(() -> put(recipeId, termFrequencies));
+    }
+
+    public void remove(UUID recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAfterCommit(UUID recipeId) {
+        AfterCommit.run(() -> remove(recipeId));
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of matching recipes, best match first.
+     */
+    public List<UUID> search(String query, int limit) {
+        List<String> queryTerms = TextAnalyzer.analyze(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<UUID, Double> scores = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                boolean lastTerm = i == queryTerms.size() - 1;
+
+                for (String indexedTerm : matchingTerms(term, lastTerm)) {
+                    if (seen.add(indexedTerm)) {
+                        score(postings.get(indexedTerm), documentCount, averageLength, scores);
+                    }
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> matchingTerms(String term, boolean allowPrefix) {
+        if (!allowPrefix) {
+            return postings.containsKey(term) ? List.of(term) : List.of();
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String candidate : postings.tailMap(term, true).keySet()) {
+            if (!candidate.startsWith(term) || terms.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            terms.add(candidate);
+        }
+        return terms;
+    }
+
+    private void score(Map<UUID, Integer> posting, int documentCount, double averageLength, Map<UUID, Double> scores) {
+        int documentFrequency = posting.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (Map.Entry<UUID, Integer> entry : posting.entrySet()) {
+            int termFrequency = entry.getValue();
+            double normalization = K1 * (1 - B + B * documentLengths.get(entry.getKey()) / averageLength);
+            double termScore = idf * termFrequency * (K1 + 1) / (termFrequency + normalization);
+
+            scores.merge(entry.getKey(), termScore, Double::sum);
+        }
+    }
+
+    private void put(UUID recipeId, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(recipeId);
+
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>())
+                        .put(recipeId, entry.getValue());
+                length += entry.getValue();
+            }
+
+            documentTerms.put(recipeId, termFrequencies.keySet());
+            documentLengths.put(recipeId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(UUID recipeId) {
+        Set<String> terms = documentTerms.remove(recipeId);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Map<UUID, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(recipeId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        Integer length = documentLengths.remove(recipeId);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    private Map<String, Integer> termFrequencies(Recipe recipe) {
+        Map<String, Integer> frequencies = new HashMap<>();
+
+        addTerms(frequencies, recipe.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, recipe.getDescription(), 1);
+        addTerms(frequencies, recipe.getInstructions(), 1);
+
+        if (recipe.getRecipeIngredients() != null) {
+            for (RecipeIngredient recipeIngredient : recipe.getRecipeIngredients()) {
+                if (recipeIngredient.getIngredient() != null) {
+                    addTerms(frequencies, recipeIngredient.getIngredient().getName(), INGREDIENT_WEIGHT);
+                }
+            }
+        }
+
+        return frequencies;
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
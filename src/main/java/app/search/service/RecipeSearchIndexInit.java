@@ -0,0 +1,51 @@
+package app.search.service;
+
+import app.recipe.model.Recipe;
+import app.recipe.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class RecipeSearchIndexInit implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndex recipeSearchIndex;
+
+    @Autowired
+    public RecipeSearchIndexInit(RecipeRepository recipeRepository, RecipeSearchIndex recipeSearchIndex) {
+        this.recipeRepository = recipeRepository;
+        this.recipeSearchIndex = recipeSearchIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        recipeSearchIndex.clear();
+
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+        Slice<UUID> ids;
+        do {
+            ids = recipeRepository.findPublicRecipeIds(pageable);
+            if (ids.hasContent()) {
+                for (Recipe recipe : recipeRepository.findAllWithIngredientsByIdIn(ids.getContent())) {
+                    recipeSearchIndex.index(recipe);
+                }
+            }
+            pageable = ids.nextPageable();
+        } while (ids.hasNext());
+
+        log.info("- Search index built with {} recipes in {} ms",
+                recipeSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,89 @@
+package app.search.service;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lowercases, strips accents, splits on
+ * non-alphanumerics, drops stop words and applies a light English stemmer.
+ */
+@UtilityClass
+public class TextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "of", "on", "or", "the", "to", "with", "until", "then", "your"
+    );
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+
+        return terms;
+    }
+
+    /**
+     * Suffix-stripping stemmer covering the plural and verb forms that show up
+     * in recipes ("tomatoes", "baked", "chopping", "berries"). A trailing "ies" or
+     * consonant + "y" becomes "i", so "berry"/"berries" and "cookie"/"cookies" each
+     * share a stem.
+     */
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+
+        String stem = word;
+        if (stem.endsWith("ies") && stem.length() > 4) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("oes") || stem.endsWith("sses") || stem.endsWith("shes") || stem.endsWith("ches")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("ing") && stem.length() > 5) {
+            stem = undouble(stem.substring(0, stem.length() - 3));
+        } else if (stem.endsWith("ed") && stem.length() > 4) {
+            stem = undouble(stem.substring(0, stem.length() - 2));
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.endsWith("y") && stem.length() > 3 && "aeiou".indexOf(stem.charAt(stem.length() - 2)) < 0) {
+            stem = stem.substring(0, stem.length() - 1) + "i";
+        }
+
+        // "bake", "baked" and "baking" all end up as "bak"
+        if (stem.endsWith("e") && stem.length() > 3) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        return stem;
+    }
+
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length > 2 && stem.charAt(length - 1) == stem.charAt(length - 2)
+                && "lsz".indexOf(stem.charAt(length - 1)) < 0) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,17 @@
+package app.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the signed-in user, or null for anonymous requests. A
+ * {@link app.user.model.CurrentUser} parameter gets the cached snapshot, for rendering; a
+ * {@link app.user.model.User} parameter gets an entity reference of this request, for passing to services.
+ * Resolved by {@link CurrentUserArgumentResolver}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SignedIn {
+}
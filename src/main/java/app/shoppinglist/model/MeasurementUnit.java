@@ -0,0 +1,81 @@
+package app.shoppinglist.model;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Units offered by the recipe and shopping list forms. Mass and volume units carry a factor to
+ * their base unit (gram / millilitre) so amounts in different units of the same kind can be added;
+ * count units only combine with themselves.
+ */
+@Getter
+public enum MeasurementUnit {
+
+    GRAM("g", Kind.MASS, true, 1, "gr", "gram", "grams"),
+    KILOGRAM("kg", Kind.MASS, true, 1000, "kilogram", "kilograms"),
+    OUNCE("oz", Kind.MASS, false, 28.349523125, "ounce", "ounces"),
+    POUND("lb", Kind.MASS, false, 453.59237, "lbs", "pound", "pounds"),
+
+    MILLILITER("ml", Kind.VOLUME, true, 1, "milliliter", "milliliters", "millilitre", "millilitres"),
+    LITER("l", Kind.VOLUME, true, 1000, "liter", "liters", "litre", "litres"),
+    TEASPOON("tsp", Kind.VOLUME, false, 4.92892159375, "teaspoon", "teaspoons"),
+    TABLESPOON("tbsp", Kind.VOLUME, false, 14.78676478125, "tablespoon", "tablespoons"),
+    CUP("cup", Kind.VOLUME, false, 236.5882365, "cups"),
+
+    PIECE("piece", Kind.COUNT, false, 1, "pieces", "pc", "pcs"),
+    PACK("pack", Kind.COUNT, false, 1, "packs"),
+    CLOVE("clove", Kind.COUNT, false, 1, "cloves"),
+    SLICE("slice", Kind.COUNT, false, 1, "slices");
+
+    public enum Kind {
+        MASS,
+        VOLUME,
+        COUNT
+    }
+
+    private static final Map<String, MeasurementUnit> BY_NAME = new HashMap<>();
+
+    static {
+        for (MeasurementUnit unit : values()) {
+            BY_NAME.put(unit.symbol, unit);
+            for (String alias : unit.aliases) {
+                BY_NAME.put(alias, unit);
+            }
+        }
+    }
+
+    private final String symbol;
+    private final Kind kind;
+    private final boolean metric;
+    private final double baseFactor;
+    private final String[] aliases;
+
+    MeasurementUnit(String symbol, Kind kind, boolean metric, double baseFactor, String... aliases) {
+        this.symbol = symbol;
+        this.kind = kind;
+        this.metric = metric;
+        this.baseFactor = baseFactor;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Returns null for a blank or unknown unit.
+     */
+    public static MeasurementUnit fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        if (key.endsWith(".")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return BY_NAME.get(key);
+    }
+
+    public boolean isCompatibleWith(MeasurementUnit other) {
+        return kind == other.kind && (kind != Kind.COUNT || this == other);
+    }
+}
@@ -0,0 +1,117 @@
+package app.shoppinglist.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * An amount parsed from the free-text quantity/unit pair of a recipe line or shopping list item.
+ * A null unit means a plain count ("2" eggs).
+ */
+@Getter
+@AllArgsConstructor
+public class Quantity {
+
+    // "2", "3.5", "3,5", "1/2", "2 1/4"
+    private static final Pattern AMOUNT = Pattern.compile(
+            "^(?:(\\d+(?:[.,]\\d+)?)|(?:(\\d+)\\s+)?(\\d+)\\s*/\\s*(\\d+))$");
+
+    private final double amount;
+    private final MeasurementUnit unit;
+
+    /**
+     * Returns null when the amount is missing or not a number, or the unit is not one we know,
+     * since such lines cannot be safely added together.
+     */
+    public static Quantity parse(String quantity, String unit) {
+        if (quantity == null || quantity.isBlank()) {
+            return null;
+        }
+
+        MeasurementUnit measurementUnit = MeasurementUnit.fromString(unit);
+        if (measurementUnit == null && unit != null && !unit.isBlank()) {
+            return null;
+        }
+
+        Double amount = parseAmount(quantity.trim());
+        return amount != null ? new Quantity(amount, measurementUnit) : null;
+    }
+
+    private static Double parseAmount(String value) {
+        Matcher matcher = AMOUNT.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        if (matcher.group(1) != null) {
+            return Double.parseDouble(matcher.group(1).replace(',', '.'));
+        }
+
+        double denominator = Double.parseDouble(matcher.group(4));
+        if (denominator == 0) {
+            return null;
+        }
+        double whole = matcher.group(2) != null ? Double.parseDouble(matcher.group(2)) : 0;
+        return whole + Double.parseDouble(matcher.group(3)) / denominator;
+    }
+
+    public boolean isCompatibleWith(Quantity other) {
+        if (unit == null || other.unit == null) {
+            return unit == other.unit;
+        }
+        return unit.isCompatibleWith(other.unit);
+    }
+
+    /**
+     * Sum of both amounts, or null when the units are of different kinds. Same units add directly;
+     * mixed units are converted and shown in the largest unit that still gives at least 1, staying
+     * metric whenever a metric unit is involved (2 tbsp + 100 ml is shown in ml, not in cups).
+     */
+    public Quantity plus(Quantity other) {
+        if (!isCompatibleWith(other)) {
+            return null;
+        }
+        if (unit == other.unit) {
+            return new Quantity(amount + other.amount, unit);
+        }
+
+        double base = amount * unit.getBaseFactor() + other.amount * other.unit.getBaseFactor();
+        boolean metric = unit.isMetric() || other.unit.isMetric();
+
+        MeasurementUnit target = Stream.of(MeasurementUnit.values())
+                .filter(candidate -> candidate.getKind() == unit.getKind() && candidate.isMetric() == metric)
+                .filter(candidate -> metric || candidate == unit || candidate == other.unit)
+                .filter(candidate -> base / candidate.getBaseFactor() >= 1)
+                .max(Comparator.comparingDouble(MeasurementUnit::getBaseFactor))
+                .orElse(smallerOf(unit, other.unit, metric));
+
+        return new Quantity(base / target.getBaseFactor(), target);
+    }
+
+    private static MeasurementUnit smallerOf(MeasurementUnit first, MeasurementUnit second, boolean metric) {
+        if (metric) {
+            return first.getKind() == MeasurementUnit.Kind.MASS ? MeasurementUnit.GRAM : MeasurementUnit.MILLILITER;
+        }
+        return first.getBaseFactor() <= second.getBaseFactor() ? first : second;
+    }
+
+    /**
+     * Amount rounded to two decimals without trailing zeros ("1.5", "250").
+     */
+    public String formatAmount() {
+        return BigDecimal.valueOf(amount)
+                .setScale(2, RoundingMode.HALF_UP)
+                .stripTrailingZeros()
+                .toPlainString();
+    }
+
+    public String formatUnit() {
+        return unit != null ? unit.getSymbol() : null;
+    }
+}
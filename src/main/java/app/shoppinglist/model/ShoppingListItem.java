@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -14,6 +16,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_shopping_item_user_completed", columnList = "user_id, completed"))
 public class ShoppingListItem {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -44,6 +47,16 @@ public class ShoppingListItem {
     @JoinColumn(name = "recipe_id")
     private Recipe recipe;
 
+    /**
+     * Every recipe whose lines ended up in this item, including {@link #recipe}; grows when
+     * another recipe's line is consolidated into it.
+     */
+    @ManyToMany
+    @JoinTable(name = "shopping_list_item_recipes",
+            joinColumns = @JoinColumn(name = "shopping_list_item_id"),
+            inverseJoinColumns = @JoinColumn(name = "recipe_id"))
+    @Builder.Default
+    private Set<Recipe> sourceRecipes = new HashSet<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ingredient_id")
@@ -0,0 +1,61 @@
+package app.shoppinglist.model;
+
+import app.recipe.model.Recipe;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Everything the shopping list page shows, computed in a single pass over the user's items.
+ * Items keep the order they were loaded in (newest first) both in the flat list and inside each category.
+ * The recipe count covers every source recipe of a consolidated item, not only the one that created it.
+ */
+@Getter
+public class ShoppingListView {
+
+    private final List<ShoppingListItem> items;
+    private final Map<String, List<ShoppingListItem>> categorizedItems;
+    private final long totalItems;
+    private final long completedItems;
+    private final long recipeCount;
+    private final int completionPercentage;
+
+    private ShoppingListView(List<ShoppingListItem> items,
+                             Map<String, List<ShoppingListItem>> categorizedItems,
+                             long completedItems,
+                             long recipeCount) {
+        this.items = items;
+        this.categorizedItems = categorizedItems;
+        this.totalItems = items.size();
+        this.completedItems = completedItems;
+        this.recipeCount = recipeCount;
+        this.completionPercentage = totalItems == 0
+                ? 0
+                : (int) Math.round((double) completedItems / totalItems * 100);
+    }
+
+    public static ShoppingListView of(List<ShoppingListItem> items,
+                                      Function<ShoppingListItem, String> categoryName) {
+        Map<String, List<ShoppingListItem>> categorized = new LinkedHashMap<>();
+        Set<UUID> recipeIds = new HashSet<>();
+        long completed = 0;
+
+        for (ShoppingListItem item : items) {
+            categorized.computeIfAbsent(categoryName.apply(item), key -> new ArrayList<>()).add(item);
+            if (item.isCompleted()) {
+                completed++;
+            }
+            if (item.getRecipe() != null) {
+                recipeIds.add(item.getRecipe().getId());
+            }
+            if (item.getSourceRecipes() != null) {
+                for (Recipe recipe : item.getSourceRecipes()) {
+                    recipeIds.add(recipe.getId());
+                }
+            }
+        }
+
+        return new ShoppingListView(List.copyOf(items), categorized, completed, recipeIds.size());
+    }
+}
@@ -1,11 +1,17 @@
 package app.shoppinglist.repository;
 
+import app.ingredient.model.Ingredient;
 import app.recipe.model.Recipe;
 import app.shoppinglist.model.ShoppingListItem;
 import app.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +22,12 @@ public interface ShoppingListItemRepository extends JpaRepository<ShoppingListIt
     List<ShoppingListItem> findByUserOrderByCreatedOnDesc(User user);
 
 
+    @Query("SELECT i FROM ShoppingListItem i LEFT JOIN FETCH i.recipe r LEFT JOIN FETCH r.author " +
+            "LEFT JOIN FETCH i.sourceRecipes s LEFT JOIN FETCH s.author " +
+            "WHERE i.user = :user ORDER BY i.createdOn DESC")
+    List<ShoppingListItem> findWithRecipeByUserOrderByCreatedOnDesc(@Param("user") User user);
+
+
     List<ShoppingListItem> findByUserAndCompletedOrderByCreatedOnDesc(User user, boolean completed);
 
 
@@ -29,4 +41,25 @@ public interface ShoppingListItemRepository extends JpaRepository<ShoppingListIt
 
 
     List<ShoppingListItem> findByUserAndRecipeOrderByCreatedOnDesc(User user, Recipe recipe);
+
+
+    // Open items that came from a recipe; every such item keeps the recipe it was first added from
+    List<ShoppingListItem> findByUserAndCompletedFalseAndRecipeIsNotNullAndIngredientIn(User user,
+                                                                                      Collection<Ingredient> ingredients);
+
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ShoppingListItem i SET i.completed = true, i.updatedOn = :updatedOn " +
+            "WHERE i.user = :user AND i.completed = false")
+    int markAllCompletedByUser(@Param("user") User user, @Param("updatedOn") LocalDateTime updatedOn);
+
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ShoppingListItem i WHERE i.user = :user AND i.completed = true")
+    int deleteCompletedByUser(@Param("user") User user);
+
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ShoppingListItem i WHERE i.user = :user")
+    int deleteAllByUser(@Param("user") User user);
 }
\ No newline at end of file
@@ -6,7 +6,10 @@ import app.ingredient.model.Ingredient;
 import app.ingredient.service.IngredientService;
 import app.recipe.model.Recipe;
 import app.recipe.service.RecipeService;
+import app.recipeingredient.model.RecipeIngredient;
+import app.shoppinglist.model.Quantity;
 import app.shoppinglist.model.ShoppingListItem;
+import app.shoppinglist.model.ShoppingListView;
 import app.shoppinglist.repository.ShoppingListItemRepository;
 import app.user.model.User;
 import lombok.extern.slf4j.Slf4j;
@@ -15,10 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -65,15 +65,50 @@ public class ShoppingListItemService {
     }
 
 
-    public void addIngredientsFromRecipe(User user, UUID recipeId) {
+    /**
+     * Adds the recipe's lines to the user's list and returns every item that was created or, when a line
+     * was consolidated into an open item, updated.
+     */
+    public List<ShoppingListItem> addIngredientsFromRecipe(User user, UUID recipeId) {
         Recipe recipe = recipeService.getById(recipeId);
 
         if (recipe.getRecipeIngredients().isEmpty()) {
             log.warn("Recipe [{}] has no ingredients to add", recipe.getTitle());
-            return;
+            return List.of();
         }
 
-        recipe.getRecipeIngredients().forEach(recipeIngredient -> {
+        List<ShoppingListItem> savedItems = addRecipeIngredients(user, recipe, recipe.getRecipeIngredients());
+
+        log.info("User [{}] added {} ingredients from recipe [{}] to shopping list",
+                user.getUsername(), savedItems.size(), recipe.getTitle());
+        return savedItems;
+    }
+
+    /**
+     * Consolidates the recipe lines into the user's open recipe items for the same ingredient where the
+     * quantities can be added (see {@link Quantity#plus}), and builds new items for the rest. Items the user
+     * added by hand are left as they are. Everything touched is persisted with one saveAll, so the inserts
+     * and updates go out as JDBC batches.
+     * A merged item keeps the recipe link and notes it already had and records the recipe among its
+     * source recipes. Returns the created and the updated items.
+     */
+    private List<ShoppingListItem> addRecipeIngredients(User user, Recipe recipe,
+                                                        Collection<RecipeIngredient> recipeIngredients) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, List<ShoppingListItem>> openItemsByIngredient = findOpenItemsByIngredient(user, recipeIngredients);
+        Set<ShoppingListItem> touched = new LinkedHashSet<>();
+
+        for (RecipeIngredient recipeIngredient : recipeIngredients) {
+            List<ShoppingListItem> candidates = openItemsByIngredient.computeIfAbsent(
+                    recipeIngredient.getIngredient().getId(), id -> new ArrayList<>());
+
+            ShoppingListItem merged = mergeIntoExisting(candidates, recipeIngredient, now);
+            if (merged != null) {
+                addSourceRecipe(merged, recipe);
+                touched.add(merged);
+                continue;
+            }
+
             ShoppingListItem item = ShoppingListItem.builder()
                     .name(recipeIngredient.getIngredient().getName())
                     .quantity(recipeIngredient.getQuantity())
@@ -81,18 +116,84 @@ public class ShoppingListItemService {
                     .notes(recipeIngredient.getNotes())
                     .ingredient(recipeIngredient.getIngredient())
                     .recipe(recipe)
+                    .sourceRecipes(new HashSet<>(Set.of(recipe)))
                     .customCategory("From Recipe") // или null
                     .completed(false)
                     .user(user)
-                    .createdOn(LocalDateTime.now())
-                    .updatedOn(LocalDateTime.now())
+                    .createdOn(now)
+                    .updatedOn(now)
                     .build();
+            candidates.add(item);
+            touched.add(item);
+        }
 
-            shoppingListRepository.save(item);
-        });
+        return shoppingListRepository.saveAll(touched);
+    }
 
-        log.info("User [{}] added {} ingredients from recipe [{}] to shopping list",
-                user.getUsername(), recipe.getRecipeIngredients().size(), recipe.getTitle());
+    private Map<UUID, List<ShoppingListItem>> findOpenItemsByIngredient(User user,
+                                                                       Collection<RecipeIngredient> recipeIngredients) {
+        Set<Ingredient> ingredients = new HashSet<>();
+        for (RecipeIngredient recipeIngredient : recipeIngredients) {
+            ingredients.add(recipeIngredient.getIngredient());
+        }
+
+        Map<UUID, List<ShoppingListItem>> byIngredient = new HashMap<>();
+        if (ingredients.isEmpty()) {
+            return byIngredient;
+        }
+        for (ShoppingListItem item : shoppingListRepository.findByUserAndCompletedFalseAndRecipeIsNotNullAndIngredientIn(user, ingredients)) {
+            byIngredient.computeIfAbsent(item.getIngredient().getId(), id -> new ArrayList<>()).add(item);
+        }
+        return byIngredient;
+    }
+
+    /**
+     * Adds the line to the first candidate it can be combined with and returns that item, or null.
+     * Lines without any quantity or unit ("salt, to taste") combine with items that have none either.
+     */
+    private ShoppingListItem mergeIntoExisting(List<ShoppingListItem> candidates,
+                                               RecipeIngredient recipeIngredient, LocalDateTime now) {
+        boolean lineUnquantified = isBlank(recipeIngredient.getQuantity()) && isBlank(recipeIngredient.getUnit());
+        Quantity lineQuantity = Quantity.parse(recipeIngredient.getQuantity(), recipeIngredient.getUnit());
+
+        for (ShoppingListItem candidate : candidates) {
+            if (lineUnquantified) {
+                if (isBlank(candidate.getQuantity()) && isBlank(candidate.getUnit())) {
+                    return candidate;
+                }
+                continue;
+            }
+
+            Quantity existing = Quantity.parse(candidate.getQuantity(), candidate.getUnit());
+            Quantity sum = existing != null && lineQuantity != null ? existing.plus(lineQuantity) : null;
+            if (sum != null) {
+                candidate.setQuantity(sum.formatAmount());
+                candidate.setUnit(sum.formatUnit());
+                if (isBlank(candidate.getNotes())) {
+                    candidate.setNotes(recipeIngredient.getNotes());
+                }
+                candidate.setUpdatedOn(now);
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Items added before source recipes were tracked only have their {@code recipe} link, so it is carried over too.
+     */
+    private static void addSourceRecipe(ShoppingListItem item, Recipe recipe) {
+        if (item.getSourceRecipes() == null) {
+            item.setSourceRecipes(new HashSet<>());
+        }
+        if (item.getRecipe() != null) {
+            item.getSourceRecipes().add(item.getRecipe());
+        }
+        item.getSourceRecipes().add(recipe);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
 
@@ -139,18 +240,10 @@ public class ShoppingListItemService {
     }
 
 
-    public void markAllCompleted(User user) {
-        List<ShoppingListItem> userItems = getUserShoppingList(user);
-
-        userItems.forEach(item -> {
-            if (!item.isCompleted()) {
-                item.setCompleted(true);
-                item.setUpdatedOn(LocalDateTime.now());
-            }
-        });
-
-        shoppingListRepository.saveAll(userItems);
-        log.info("User [{}] marked all shopping list items as completed", user.getUsername());
+    public int markAllCompleted(User user) {
+        int updated = shoppingListRepository.markAllCompletedByUser(user, LocalDateTime.now());
+        log.info("User [{}] marked all shopping list items as completed ({} items)", user.getUsername(), updated);
+        return updated;
     }
 
 
@@ -165,21 +258,19 @@ public class ShoppingListItemService {
     }
 
 
-    public void removeCompletedItems(User user) {
-        List<ShoppingListItem> completedItems =
-                shoppingListRepository.findByUserAndCompletedOrderByCreatedOnDesc(user, true);
-
-        shoppingListRepository.deleteAll(completedItems);
+    public int removeCompletedItems(User user) {
+        int deleted = shoppingListRepository.deleteCompletedByUser(user);
         log.info("User [{}] removed {} completed items from shopping list",
-                user.getUsername(), completedItems.size());
+                user.getUsername(), deleted);
+        return deleted;
     }
 
 
-    public void clearAllItems(User user) {
-        List<ShoppingListItem> userItems = getUserShoppingList(user);
-        shoppingListRepository.deleteAll(userItems);
+    public int clearAllItems(User user) {
+        int deleted = shoppingListRepository.deleteAllByUser(user);
         log.info("User [{}] cleared entire shopping list ({} items)",
-                user.getUsername(), userItems.size());
+                user.getUsername(), deleted);
+        return deleted;
     }
 
     // ========== READ Operations ==========
@@ -211,10 +302,14 @@ public class ShoppingListItemService {
     }
 
 
-    public Map<String, List<ShoppingListItem>> getCategorizedItems(User user) {
-        List<ShoppingListItem> allItems = getUserShoppingList(user);
-        return allItems.stream()
-                .collect(Collectors.groupingBy(this::getDisplayCategoryName));
+    /**
+     * Loads the list once (recipes and their eager author fetch-joined) and derives
+     * the grouping and all page statistics from that single result.
+     */
+    @Transactional(readOnly = true)
+    public ShoppingListView getShoppingListView(User user) {
+        List<ShoppingListItem> items = shoppingListRepository.findWithRecipeByUserOrderByCreatedOnDesc(user);
+        return ShoppingListView.of(items, this::getDisplayCategoryName);
     }
 
     // ========== Statistics ==========
@@ -233,29 +328,6 @@ public class ShoppingListItemService {
         return shoppingListRepository.countByUserAndCompleted(user, true);
     }
 
-    /**
-     * Колко различни рецепти има в shopping list-a
-     */
-    public long getRecipeCount(User user) {
-        return getUserShoppingList(user).stream()
-                .filter(item -> item.getRecipe() != null)
-                .map(item -> item.getRecipe().getId())
-                .distinct()
-                .count();
-    }
-
-    /**
-     * Процент завършени items
-     */
-    public int getCompletionPercentage(User user) {
-        long total = getTotalItemsCount(user);
-        if (total == 0) {
-            return 0;
-        }
-        long completed = getCompletedItemsCount(user);
-        return (int) Math.round((double) completed / total * 100);
-    }
-
     // ========== Helper Methods ==========
 
     /**
@@ -278,36 +350,24 @@ public class ShoppingListItemService {
         }
     }
 
-    public void addSelectedIngredientsFromRecipe(User user, UUID recipeId, List<UUID> selectedIngredientIds) {
+    public List<ShoppingListItem> addSelectedIngredientsFromRecipe(User user, UUID recipeId, List<UUID> selectedIngredientIds) {
         Recipe recipe = recipeService.getById(recipeId);
 
         if (recipe.getRecipeIngredients().isEmpty()) {
             log.warn("Recipe [{}] has no ingredients to add", recipe.getTitle());
-            return;
+            return List.of();
         }
 
         // Filter only selected ingredients
-        recipe.getRecipeIngredients().stream()
-                .filter(recipeIngredient -> selectedIngredientIds.contains(recipeIngredient.getId()))
-                .forEach(recipeIngredient -> {
-                    ShoppingListItem item = ShoppingListItem.builder()
-                            .name(recipeIngredient.getIngredient().getName())
-                            .quantity(recipeIngredient.getQuantity())
-                            .unit(recipeIngredient.getUnit())
-                            .notes(recipeIngredient.getNotes())
-                            .ingredient(recipeIngredient.getIngredient())
-                            .recipe(recipe)
-                            .customCategory("From Recipe")
-                            .completed(false)
-                            .user(user)
-                            .createdOn(LocalDateTime.now())
-                            .updatedOn(LocalDateTime.now())
-                            .build();
-
-                    shoppingListRepository.save(item);
-                });
+        Set<UUID> selected = new HashSet<>(selectedIngredientIds);
+        List<RecipeIngredient> selectedIngredients = recipe.getRecipeIngredients().stream()
+                .filter(recipeIngredient -> selected.contains(recipeIngredient.getId()))
+                .toList();
+
+        List<ShoppingListItem> savedItems = addRecipeIngredients(user, recipe, selectedIngredients);
 
         log.info("User [{}] added {} selected ingredients from recipe [{}] to shopping list",
-                user.getUsername(), selectedIngredientIds.size(), recipe.getTitle());
+                user.getUsername(), savedItems.size(), recipe.getTitle());
+        return savedItems;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package app.user.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What the pages show about the signed-in user, copied out of {@link User} so it can be cached and
+ * shared between requests. Immutable, and it carries none of the entity's lazy collections.
+ */
+@Getter
+@Builder
+public class CurrentUser {
+
+    private final UUID id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String profilePicture;
+    private final String country;
+    private final UserRole role;
+    private final boolean active;
+    private final LocalDateTime createdOn;
+    private final LocalDateTime updatedOn;
+
+    public static CurrentUser from(User user) {
+        return CurrentUser.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .profilePicture(user.getProfilePicture())
+                .country(user.getCountry())
+                .role(user.getRole())
+                .active(user.isActive())
+                .createdOn(user.getCreatedOn())
+                .updatedOn(user.getUpdatedOn())
+                .build();
+    }
+}
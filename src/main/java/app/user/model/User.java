@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_user_created", columnList = "created_on, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,21 @@
+package app.user.model;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orderings offered on the admin user directory, each ending on id so pages are stable.
+ */
+@Getter
+public enum UserSort {
+
+    NEWEST(Sort.by(Sort.Direction.DESC, "createdOn", "id")),
+    USERNAME(Sort.by("username", "id")),
+    EMAIL(Sort.by("email", "id"));
+
+    private final Sort sort;
+
+    UserSort(Sort sort) {
+        this.sort = sort;
+    }
+}
@@ -2,10 +2,14 @@ package app.user.repository;
 
 import app.user.model.User;
 import app.user.model.UserRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,7 +22,23 @@ public interface UserRepository extends JpaRepository<User, UUID> {
    long countByRole(@Param("role") UserRole role);
 
     Optional<User> findByEmail(String email);
-}
 
+    interface RoleCount {
+        UserRole getRole();
 
+        long getUsers();
+    }
 
+    @Query("SELECT u.role AS role, COUNT(u) AS users FROM User u GROUP BY u.role")
+    List<RoleCount> countUsersByRole();
+
+    // Prefix match with the caller's wildcards escaped by backslash. Null filters are ignored.
+    @Query("SELECT u FROM User u " +
+            "WHERE (:prefix IS NULL OR u.username LIKE :prefix ESCAPE '\\' OR u.email LIKE :prefix ESCAPE '\\') " +
+            "AND (:role IS NULL OR u.role = :role) " +
+            "AND (:active IS NULL OR u.isActive = :active)")
+    Slice<User> search(@Param("prefix") String prefix,
+                       @Param("role") UserRole role,
+                       @Param("active") Boolean active,
+                       Pageable pageable);
+}
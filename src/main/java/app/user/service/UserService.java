@@ -5,42 +5,55 @@ import app.exception.LastAdminException;
 import app.exception.UserNotFoundException;
 import app.exception.UsernameAlreadyExistException;
 import app.security.AuthenticationMethadata;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.model.UserSort;
 import app.user.repository.UserRepository;
 import app.web.dto.RegisterRequest;
 import app.web.dto.UserEditRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 
 @Slf4j
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final int PAGE_SIZE = 20;
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
 
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheManager = cacheManager;
     }
 
 
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = "currentUsers", key = "#userId")
     public void editUserDetails(UUID userId, UserEditRequest userEditRequest) {
 
     User user = getById(userId);
@@ -56,7 +69,6 @@ public class UserService implements UserDetailsService {
     }
 
 
-    @CacheEvict(value = "users", allEntries = true)
     public User register(RegisterRequest registerRequest) {
 
         Optional<User> userOptional = userRepository.findByUsername(registerRequest.getUsername());
@@ -91,10 +103,28 @@ public class UserService implements UserDetailsService {
                 .build();
     }
 
-    @Cacheable("users")
-    public List<User> getAllUsers() {
+    public Slice<User> searchUsers(String query, UserRole role, Boolean active, UserSort sort, int page) {
+
+        String prefix = query == null || query.isBlank() ? null : escapeLike(query.trim()) + "%";
+        Pageable pageable = PageRequest.of(page, PAGE_SIZE, sort.getSort());
+
+        return userRepository.search(prefix, role, active, pageable);
+    }
+
+    // Users per role from one grouped query, with 0 for roles nobody has
+    public Map<UserRole, Long> getUserCountsByRole() {
+
+        Map<UserRole, Long> counts = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            counts.put(role, 0L);
+        }
+        userRepository.countUsersByRole().forEach(count -> counts.put(count.getRole(), count.getUsers()));
+
+        return counts;
+    }
 
-        return userRepository.findAll();
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     public User getById(UUID id) {
@@ -102,8 +132,27 @@ public class UserService implements UserDetailsService {
         return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("User with id[%s] does not exist.".formatted(id)));
     }
 
+    /**
+     * Snapshot of the signed-in user for rendering pages, cached per id so page views don't reload it.
+     * Evicted whenever the user's profile, role or status changes.
+     */
+    @Cacheable(value = "currentUsers", key = "#id")
+    public CurrentUser getCurrentUser(UUID id) {
+
+        return CurrentUser.from(getById(id));
+    }
+
+    /**
+     * The user as an entity reference, for services that link to it or only need its id. Nothing is
+     * loaded unless one of its other fields is read.
+     */
+    public User getReference(UUID id) {
+
+        return userRepository.getReferenceById(id);
+    }
+
 
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = "currentUsers", key = "#userId")
     public void changeUserRole(UUID userId, UserRole newRole) {
         User user = getById(userId);
 
@@ -117,6 +166,7 @@ public class UserService implements UserDetailsService {
         user.setRole(newRole);
         user.setUpdatedOn(LocalDateTime.now());
         userRepository.save(user);
+        evictUserDetails(user.getUsername());
     }
 
 
@@ -129,14 +179,10 @@ public class UserService implements UserDetailsService {
        return userRepository.countByRole(UserRole.ADMIN);
     }
 
-    public long getUserCount() {
-        return  userRepository.countByRole(UserRole.USER);
-    }
-
 
     // Block Users
 
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = "currentUsers", key = "#userId")
     public void toggleUserActiveStatus(UUID userId) {
         User user = getById(userId);
 
@@ -147,13 +193,41 @@ public class UserService implements UserDetailsService {
         user.setActive(!user.isActive());
         user.setUpdatedOn(LocalDateTime.now());
         userRepository.save(user);
+        evictUserDetails(user.getUsername());
     }
 
 
+    // Cached so repeated sign-ins skip the lookup; role, status and password changes evict the entry
     @Override
+    @Cacheable(value = "userDetails", key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
        User user= userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User with this username does not exist."));
 
         return new AuthenticationMethadata(user.getId(), user.getUsername(), user.getPassword(), user.getRole(), user.isActive());
     }
+
+    /**
+     * Called by Spring Security after a successful login whose stored hash reports upgradeEncoding(),
+     * i.e. a hash from before the {bcrypt} prefix or one with a lower BCrypt strength than configured.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User with this username does not exist."));
+
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        evictUserDetails(user.getUsername());
+
+        log.info("Upgraded password hash for user [%s]".formatted(user.getUsername()));
+        return new AuthenticationMethadata(user.getId(), user.getUsername(), user.getPassword(), user.getRole(), user.isActive());
+    }
+
+    private void evictUserDetails(String username) {
+        Cache userDetails = cacheManager.getCache("userDetails");
+        if (userDetails != null) {
+            userDetails.evict(username);
+        }
+    }
 }
\ No newline at end of file
@@ -1,17 +1,19 @@
 package app.web;
 
-import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.model.UserSort;
 import app.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Controller
@@ -27,17 +29,30 @@ public class AdminController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView adminDashboard(@AuthenticationPrincipal AuthenticationMethadata auth) {
-        User user = userService.getById(auth.getUserId());
-        List<User> allUsers = userService.getAllUsers();
+    public ModelAndView adminDashboard(@SignedIn CurrentUser user,
+                                       @RequestParam(required = false) String q,
+                                       @RequestParam(required = false) UserRole role,
+                                       @RequestParam(required = false) Boolean active,
+                                       @RequestParam(defaultValue = "NEWEST") UserSort sort,
+                                       @RequestParam(defaultValue = "0") int page) {
+
+        Slice<User> users = userService.searchUsers(q, role, active, sort, Math.max(page, 0));
+        Map<UserRole, Long> roleCounts = userService.getUserCountsByRole();
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("admin");
-        modelAndView.addObject("users", allUsers);
+        modelAndView.addObject("users", users.getContent());
+        modelAndView.addObject("nextPage", users.hasNext() ? users.getNumber() + 1 : null);
+        modelAndView.addObject("previousPage", users.isFirst() ? null : users.getNumber() - 1);
+        modelAndView.addObject("q", q);
+        modelAndView.addObject("role", role);
+        modelAndView.addObject("active", active);
+        modelAndView.addObject("sort", sort);
+        modelAndView.addObject("sorts", UserSort.values());
         modelAndView.addObject("user",user);
-        modelAndView.addObject("totalUsers", userService.getTotalUsers());
-        modelAndView.addObject("adminCount", userService.getAdminCount());
-        modelAndView.addObject("userCount", userService.getUserCount());
+        modelAndView.addObject("totalUsers", roleCounts.values().stream().mapToLong(Long::longValue).sum());
+        modelAndView.addObject("adminCount", roleCounts.get(UserRole.ADMIN));
+        modelAndView.addObject("userCount", roleCounts.get(UserRole.USER));
 
         return modelAndView;
     }
@@ -2,17 +2,19 @@ package app.web;
 
 import app.category.model.Category;
 import app.category.service.CategoryService;
-import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
+import app.recipe.model.RecipeSort;
 import app.recipe.service.RecipeService;
-import app.security.AuthenticationMethadata;
-import app.user.model.User;
-import app.user.service.UserService;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
+import app.web.dto.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.List;
@@ -24,15 +26,13 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryService categoryService;
-    private final UserService userService;
     private final RecipeService recipeService;
 
 
 
     @Autowired
-    public CategoryController(CategoryService categoryService, UserService userService, RecipeService recipeService) {
+    public CategoryController(CategoryService categoryService, RecipeService recipeService) {
         this.categoryService = categoryService;
-        this.userService = userService;
         this.recipeService = recipeService;
 
 
@@ -40,8 +40,7 @@ public class CategoryController {
 
 
     @GetMapping("")
-    public ModelAndView getAllCategories(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+    public ModelAndView getAllCategories(@SignedIn CurrentUser user) {
 
 
         List<Category> allCategories = categoryService.getAllCategories();
@@ -60,17 +59,33 @@ public class CategoryController {
 
 
     @GetMapping("/{categoryName}")
-    public ModelAndView getCategoryRecipes(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata, @PathVariable String categoryName) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+    public ModelAndView getCategoryRecipes(@SignedIn CurrentUser user,
+                                           @PathVariable String categoryName,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "NEWEST") RecipeSort sort,
+                                           @RequestParam(defaultValue = "0") int page) {
 
         Category category = categoryService.findByName(categoryName);
 
-        List<Recipe> publicRecipes = recipeService.getPublicRecipes(category);
-
         ModelAndView modelAndView = new ModelAndView("category-detail");
+
+        // Newest first is the default and pages by keyset; the other orderings page by number
+        if (sort == RecipeSort.NEWEST) {
+            Slice<RecipeCard> publicRecipes = recipeService.getPublicRecipesPage(category, KeysetCursor.decode(after));
+            modelAndView.addObject("recipes", publicRecipes.getContent());
+            modelAndView.addObject("nextCursor", KeysetCursor.nextOf(publicRecipes, RecipeCard::getCreatedOn, RecipeCard::getId));
+            modelAndView.addObject("isFirstPage", after == null);
+        } else {
+            Slice<RecipeCard> publicRecipes = recipeService.getPublicRecipesPage(category, sort, Math.max(page, 0));
+            modelAndView.addObject("recipes", publicRecipes.getContent());
+            modelAndView.addObject("nextPage", publicRecipes.hasNext() ? publicRecipes.getNumber() + 1 : null);
+            modelAndView.addObject("isFirstPage", publicRecipes.isFirst());
+        }
+
         modelAndView.addObject("category", category);
-        modelAndView.addObject("recipes", publicRecipes);
-        modelAndView.addObject("recipeCount", publicRecipes.size());
+        modelAndView.addObject("sort", sort);
+        modelAndView.addObject("sorts", RecipeSort.values());
+        modelAndView.addObject("recipeCount", recipeService.countPublicRecipes(category));
         modelAndView.addObject("user", user);
 
 
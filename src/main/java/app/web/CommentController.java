@@ -4,15 +4,16 @@ import app.comment.model.Comment;
 import app.comment.service.CommentService;
 import app.recipe.model.Recipe;
 import app.recipe.service.RecipeService;
-import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.model.User;
-import app.user.service.UserService;
 import app.web.dto.CommentCreateRequest;
 import app.web.dto.CommentEditRequest;
+import app.web.dto.KeysetCursor;
 import app.web.mapper.CommentMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -25,16 +26,14 @@ import java.util.UUID;
 public class CommentController {
 
     private final CommentService commentService;
-    private final UserService userService;
     private final RecipeService recipeService;
 
 
 
     @Autowired
-    public CommentController(CommentService commentService, UserService userService, RecipeService recipeService
+    public CommentController(CommentService commentService, RecipeService recipeService
     ) {
         this.commentService = commentService;
-        this.userService = userService;
         this.recipeService = recipeService;
 
     }
@@ -43,27 +42,27 @@ public class CommentController {
     public ModelAndView addComment(@PathVariable UUID recipeId,
                                    @Valid CommentCreateRequest commentCreateRequest,
                                    BindingResult bindingResult,
-                                   @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+                                   @SignedIn CurrentUser currentUser,
+                                   @SignedIn User user) {
 
         if (bindingResult.hasErrors()) {
             Recipe recipe = recipeService.getById(recipeId);
+            recipeService.requireVisible(recipe, user);
 
             boolean isAuthor = recipeService.isAuthor(recipe, user);
             boolean isFavorite = recipeService.isFavorite(recipe, user);
 
-            Double averageRating = commentService.getAverageRatingForRecipe(recipeId);
-            int totalRatings = commentService.getTotalRatingsForRecipe(recipeId);
-
             ModelAndView modelAndView = new ModelAndView();
             modelAndView.setViewName("recipe-detail");
             modelAndView.addObject("recipe", recipe);
             modelAndView.addObject("isAuthor", isAuthor);
             modelAndView.addObject("isFavorite", isFavorite);
-            modelAndView.addObject("user", user);
-            modelAndView.addObject("comments", commentService.getCommentsByRecipe(recipeId));
-            modelAndView.addObject("averageRating", averageRating);
-            modelAndView.addObject("totalRatings", totalRatings);
+            modelAndView.addObject("user", currentUser);
+            Slice<Comment> comments = commentService.getCommentsPage(recipeId, null);
+            modelAndView.addObject("comments", comments.getContent());
+            modelAndView.addObject("commentsNextCursor", KeysetCursor.nextOf(comments, Comment::getCreatedOn, Comment::getId));
+            modelAndView.addObject("averageRating", recipe.getAverageRating());
+            modelAndView.addObject("totalRatings", recipe.getRatingCount());
             modelAndView.addObject("commentCreateRequest", commentCreateRequest);
 
             return modelAndView;
@@ -75,25 +74,40 @@ public class CommentController {
 
 
 
+    @GetMapping("/recipe/{recipeId}")
+    public ModelAndView getCommentsPage(@PathVariable UUID recipeId,
+                                        @RequestParam(required = false) String after,
+                                        @SignedIn User user) {
+
+        recipeService.requireVisible(recipeService.getById(recipeId), user);
+
+        Slice<Comment> comments = commentService.getCommentsPage(recipeId, KeysetCursor.decode(after));
+
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.setViewName("fragments/comments :: comment-page");
+        modelAndView.addObject("recipeId", recipeId);
+        modelAndView.addObject("comments", comments.getContent());
+        modelAndView.addObject("commentsNextCursor", KeysetCursor.nextOf(comments, Comment::getCreatedOn, Comment::getId));
+
+        return modelAndView;
+    }
+
     @DeleteMapping("/{commentId}/delete")
     public ModelAndView deleteComment(@PathVariable UUID commentId,
-                                      @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+                                      @SignedIn User user) {
 
         Comment comment = commentService.getById(commentId);
         UUID recipeId = comment.getRecipe().getId();
 
-        User currentUser = userService.getById(authenticationMethadata.getUserId());
-        commentService.deleteComment(commentId, currentUser);
+        commentService.deleteComment(commentId, user);
 
         return new ModelAndView("redirect:/recipes/" + recipeId + "#comments");
     }
 
     @GetMapping("/{commentId}/edit")
     public ModelAndView editCommentForm(@PathVariable UUID commentId,
-                                        @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-
-
-        User user = userService.getById(authenticationMethadata.getUserId());
+                                        @SignedIn CurrentUser currentUser,
+                                        @SignedIn User user) {
 
         Comment comment = commentService.getCommentWithAuthorCheck(commentId, user);
 
@@ -101,7 +115,7 @@ public class CommentController {
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("comment-edit");
         modelAndView.addObject("comment", comment);
-        modelAndView.addObject("user", user);
+        modelAndView.addObject("user", currentUser);
         modelAndView.addObject("commentEditRequest", CommentMapper.toEditRequest(comment));
 
         return modelAndView;
@@ -111,9 +125,8 @@ public class CommentController {
     public ModelAndView updateComment(@PathVariable UUID commentId,
                                       @Valid CommentEditRequest commentEditRequest,
                                       BindingResult bindingResult,
-                                      @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-
-        User currentUser = userService.getById(authenticationMethadata.getUserId());
+                                      @SignedIn CurrentUser currentUser,
+                                      @SignedIn User user) {
 
         Comment comment = commentService.getById(commentId);
 
@@ -128,7 +141,7 @@ public class CommentController {
         }
 
 
-        commentService.updateComment(commentId, commentEditRequest, currentUser);
+        commentService.updateComment(commentId, commentEditRequest, user);
 
         return new ModelAndView("redirect:/recipes/" + comment.getRecipe().getId() + "#comments");
     }
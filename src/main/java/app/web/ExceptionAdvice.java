@@ -28,6 +28,15 @@ public class ExceptionAdvice {
     }
 
 
+    // Only registration hashes a password inside a controller; sign-ins are refused by the security filter
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public String handlePasswordHashingBusy(RedirectAttributes redirectAttributes, PasswordHashingBusyException exception) {
+
+        redirectAttributes.addFlashAttribute("registrationBusyMessage", exception.getMessage());
+        return "redirect:/register";
+    }
+
+
 
     @ResponseStatus(HttpStatus.FORBIDDEN)
     @ExceptionHandler({AccessDeniedException.class, UnauthorizedAccessException.class })
@@ -1,16 +1,16 @@
 package app.web;
 
 
-import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
-import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.LoginRequest;
 import app.web.dto.RegisterRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -74,16 +74,15 @@ public class IndexController {
     }
 
     @GetMapping("/home")
-    public ModelAndView getHomePage(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata){
-        User user = userService.getById(authenticationMethadata.getUserId());
-        List<Recipe> recentRecipes = recipeService.getRecipesByUser(user, 3);
+    public ModelAndView getHomePage(@SignedIn CurrentUser currentUser, @SignedIn User user){
+        List<RecipeCard> recentRecipes = recipeService.getRecipesByUser(user, 3);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("home");
         modelAndView.addObject("recentRecipes", recentRecipes);
-        modelAndView.addObject("user", user);
+        modelAndView.addObject("user", currentUser);
         modelAndView.addObject("myRecipesCount", recipeService.countUserRecipes(user));
-        modelAndView.addObject("favoritesCount", recipeService.countUserFavorites(user.getId()));
+        modelAndView.addObject("favoritesCount", recipeService.countUserFavorites(currentUser.getId()));
 
         return modelAndView;
     }
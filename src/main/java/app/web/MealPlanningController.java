@@ -1,12 +1,13 @@
 package app.web;
 
-import app.mealplanning.client.dto.MealPlanResponse;
 import app.mealplanning.service.MealPlanningService;
-import app.recipe.model.Recipe;
+import app.mealplanning.service.WeeklyMealPlans;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
 import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.model.User;
-import app.user.service.UserService;
 import app.web.dto.MealPlanAddRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,15 +27,12 @@ import java.util.UUID;
 public class MealPlanningController {
 
     private final MealPlanningService mealPlanningService;
-    private final UserService userService;
     private final RecipeService recipeService;
 
     @Autowired
     public MealPlanningController(MealPlanningService mealPlanningService,
-                                  UserService userService,
                                   RecipeService recipeService) {
         this.mealPlanningService = mealPlanningService;
-        this.userService = userService;
         this.recipeService = recipeService;
     }
 
@@ -43,18 +41,19 @@ public class MealPlanningController {
             @RequestParam(required = false) LocalDate weekStart,
             @RequestParam(required = false) LocalDate date,
             @RequestParam(required = false) String mealType,
-            @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+            @SignedIn CurrentUser currentUser,
+            @SignedIn User user) {
 
-        User user = userService.getById(authenticationMethadata.getUserId());
         LocalDate displayWeekStart = mealPlanningService.resolveWeekStart(weekStart);
-        List<MealPlanResponse> weeklyMealPlans = mealPlanningService.getWeeklyMealPlans(user.getId(), displayWeekStart);
-        List<Recipe> userRecipes = recipeService.getRecipesByUser(user, null);
-        List<Recipe> favoriteRecipes = recipeService.getUserFavorites(user.getId());
-        Map<UUID, Boolean> recipeAvailability = mealPlanningService.getRecipeAvailability(weeklyMealPlans);
+        WeeklyMealPlans weeklyMealPlans = mealPlanningService.getWeeklyMealPlans(user.getId(), displayWeekStart);
+        List<RecipeCard> userRecipes = recipeService.getRecipesByUser(user, null);
+        List<RecipeCard> favoriteRecipes = recipeService.getUserFavorites(user.getId());
+        Map<UUID, Boolean> recipeAvailability = mealPlanningService.getRecipeAvailability(weeklyMealPlans.getMealPlans());
 
         ModelAndView modelAndView = new ModelAndView("meal-planning");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("weeklyMealPlans", weeklyMealPlans);
+        modelAndView.addObject("user", currentUser);
+        modelAndView.addObject("weeklyMealPlans", weeklyMealPlans.getMealPlans());
+        modelAndView.addObject("mealPlansStale", weeklyMealPlans.isStale());
         modelAndView.addObject("userRecipes", userRecipes);
         modelAndView.addObject("favoriteRecipes", favoriteRecipes);
         modelAndView.addObject("weekStart", displayWeekStart);
@@ -72,21 +71,22 @@ public class MealPlanningController {
             @Valid @ModelAttribute MealPlanAddRequest request,
             BindingResult bindingResult,
             @RequestParam(required = false) LocalDate weekStart,
-            @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+            @SignedIn CurrentUser currentUser,
+            @SignedIn User user) {
 
         LocalDate currentWeekStart = mealPlanningService.resolveWeekStart(weekStart);
 
         if (bindingResult.hasErrors()) {
 
-            User user = userService.getById(authenticationMethadata.getUserId());
-            List<MealPlanResponse> weeklyMealPlans = mealPlanningService.getWeeklyMealPlans(user.getId(), currentWeekStart);
-            List<Recipe> userRecipes = recipeService.getRecipesByUser(user, null);
-            List<Recipe> favoriteRecipes = recipeService.getUserFavorites(user.getId());
-            Map<UUID, Boolean> recipeAvailability = mealPlanningService.getRecipeAvailability(weeklyMealPlans);
+            WeeklyMealPlans weeklyMealPlans = mealPlanningService.getWeeklyMealPlans(user.getId(), currentWeekStart);
+            List<RecipeCard> userRecipes = recipeService.getRecipesByUser(user, null);
+            List<RecipeCard> favoriteRecipes = recipeService.getUserFavorites(user.getId());
+            Map<UUID, Boolean> recipeAvailability = mealPlanningService.getRecipeAvailability(weeklyMealPlans.getMealPlans());
 
             ModelAndView modelAndView = new ModelAndView("meal-planning");
-            modelAndView.addObject("user", user);
-            modelAndView.addObject("weeklyMealPlans", weeklyMealPlans);
+            modelAndView.addObject("user", currentUser);
+            modelAndView.addObject("weeklyMealPlans", weeklyMealPlans.getMealPlans());
+            modelAndView.addObject("mealPlansStale", weeklyMealPlans.isStale());
             modelAndView.addObject("userRecipes", userRecipes);
             modelAndView.addObject("favoriteRecipes", favoriteRecipes);
             modelAndView.addObject("recipeAvailability", recipeAvailability);
@@ -99,7 +99,7 @@ public class MealPlanningController {
         }
 
         mealPlanningService.addRecipeToMealPlan(
-                authenticationMethadata.getUserId(),
+                user.getId(),
                 request.getRecipeId(),
                 request.getMealType(),
                 request.getPlannedDate()
@@ -1,23 +1,26 @@
 package app.web;
 
 
+import app.comment.model.Comment;
 import app.comment.service.CommentService;
 import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
 import app.category.service.CategoryService;
-import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.model.User;
-import app.user.service.UserService;
 import app.web.dto.CommentCreateRequest;
+import app.web.dto.KeysetCursor;
 import app.web.dto.RecipeCreateRequest;
 import app.web.dto.RecipeUpdateRequest;
 import app.web.mapper.RecipeMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -34,7 +37,6 @@ public class RecipeController {
 
     private final RecipeService recipeService;
     private final CategoryService categoryService;
-    private final UserService userService;
     private final CommentService commentService;
 
 
@@ -42,16 +44,14 @@ public class RecipeController {
 
     @Autowired
     public RecipeController(RecipeService recipeService, CategoryService categoryService,
-                            UserService userService,  CommentService commentService) {
+                            CommentService commentService) {
         this.recipeService = recipeService;
         this.categoryService = categoryService;
-        this.userService = userService;
         this.commentService = commentService;
     }
 
     @GetMapping("/add")
-    public ModelAndView getRecipeAddPage(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+    public ModelAndView getRecipeAddPage(@SignedIn CurrentUser user) {
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("recipe-form");
@@ -67,8 +67,8 @@ public class RecipeController {
     public ModelAndView saveRecipe(
             @Valid RecipeCreateRequest recipeCreateRequest,
             BindingResult bindingResult,
-            @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+            @SignedIn CurrentUser currentUser,
+            @SignedIn User user) {
 
         if (bindingResult.hasErrors()) {
 
@@ -77,7 +77,7 @@ public class RecipeController {
             ModelAndView modelAndView = new ModelAndView("recipe-form");
             modelAndView.addObject("recipeCreateRequest", recipeCreateRequest);
             modelAndView.addObject("categories", categoryService.getAllCategories());
-            modelAndView.addObject("user", user);
+            modelAndView.addObject("user", currentUser);
             return modelAndView;
         }
 
@@ -86,48 +86,55 @@ public class RecipeController {
     }
     @GetMapping("/{recipeId}")
     public ModelAndView viewRecipe(@PathVariable UUID recipeId,
-                                   @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+                                   @SignedIn CurrentUser currentUser,
+                                   @SignedIn User user) {
 
-        Recipe recipe = recipeService.getById(recipeId);
+        Recipe recipe = recipeService.getDetailById(recipeId);
+        recipeService.requireVisible(recipe, user);
 
-
-        User user = null;
         boolean isAuthor = false;
         boolean isFavorite = false;
 
-        if (authenticationMethadata != null) {
+        // Null for anonymous visitors, the recipe page is public
+        if (user != null) {
 
-            user = userService.getById(authenticationMethadata.getUserId());
             isAuthor = recipeService.isAuthor(recipe, user);
             isFavorite = recipeService.isFavorite(recipe, user);
         }
 
-        Double averageRating = commentService.getAverageRatingForRecipe(recipeId);
-        int totalRatings = commentService.getTotalRatingsForRecipe(recipeId);
-
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("recipe-detail");
         modelAndView.addObject("recipe", recipe);
         modelAndView.addObject("isAuthor", isAuthor);
         modelAndView.addObject("isFavorite", isFavorite);
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("comments", commentService.getCommentsByRecipe(recipe.getId()));
-        modelAndView.addObject("averageRating", averageRating);
-        modelAndView.addObject("totalRatings", totalRatings);
+        modelAndView.addObject("user", currentUser);
+        modelAndView.addObject("averageRating", recipe.getAverageRating());
+        modelAndView.addObject("totalRatings", recipe.getRatingCount());
         modelAndView.addObject("commentCreateRequest", new CommentCreateRequest());
 
+        // The comment thread is only shown to signed-in users
+        if (user != null) {
+            Slice<Comment> comments = commentService.getCommentsPage(recipeId, null);
+            modelAndView.addObject("comments", comments.getContent());
+            modelAndView.addObject("commentsNextCursor", KeysetCursor.nextOf(comments, Comment::getCreatedOn, Comment::getId));
+        }
+
         return modelAndView;
     }
 
     @GetMapping("/mine")
-    public ModelAndView getMyRecipes(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+    public ModelAndView getMyRecipes(@RequestParam(required = false) String after,
+                                     @SignedIn CurrentUser currentUser,
+                                     @SignedIn User user) {
+        Slice<RecipeCard> recipes = recipeService.getRecipesByUserPage(user, KeysetCursor.decode(after));
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("recipe-list");
-        modelAndView.addObject("recipes", recipeService.getRecipesByUser(user, null));
+        modelAndView.addObject("recipes", recipes.getContent());
+        modelAndView.addObject("nextCursor", KeysetCursor.nextOf(recipes, RecipeCard::getCreatedOn, RecipeCard::getId));
+        modelAndView.addObject("isFirstPage", after == null);
 
-        modelAndView.addObject("user", user);
+        modelAndView.addObject("user", currentUser);
         return modelAndView;
     }
 
@@ -135,9 +142,8 @@ public class RecipeController {
 
     @GetMapping("/edit/{recipeId}")
     public ModelAndView getRecipeEditPage(@PathVariable UUID recipeId,
-                                          @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
-        Recipe recipe = recipeService.getById(recipeId);
+                                          @SignedIn CurrentUser user) {
+        Recipe recipe = recipeService.getDetailById(recipeId);
 
         RecipeUpdateRequest recipeUpdateRequest = RecipeMapper.toUpdateRequest(recipe);
         RecipeMapper.ensureMinimumIngredients(recipeUpdateRequest, 5);
@@ -154,9 +160,9 @@ public class RecipeController {
     public ModelAndView updateRecipe(@PathVariable UUID recipeId,
                                      @Valid RecipeUpdateRequest recipeUpdateRequest,
                                      BindingResult bindingResult,
-                                     @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+                                     @SignedIn CurrentUser currentUser,
+                                     @SignedIn User user) {
 
-        User user = userService.getById(authenticationMethadata.getUserId());
 
         if (bindingResult.hasErrors()) {
 
@@ -166,7 +172,7 @@ public class RecipeController {
             modelAndView.addObject("recipeUpdateRequest", recipeUpdateRequest);
             modelAndView.addObject("recipeId", recipeId);
             modelAndView.addObject("categories", categoryService.getAllCategories());
-            modelAndView.addObject("user", user);
+            modelAndView.addObject("user", currentUser);
             return modelAndView;
         }
 
@@ -176,17 +182,15 @@ public class RecipeController {
 
     @DeleteMapping("/{recipeId}/delete")
     public ModelAndView deleteRecipe(@PathVariable UUID recipeId,
-                                     @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+                                     @SignedIn User user) {
         recipeService.deleteRecipe(recipeId, user);
         return new ModelAndView("redirect:/recipes/mine");
     }
 
 
     @GetMapping("/favorites")
-    public ModelAndView getMyFavorites(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
-        List<Recipe> favorites = recipeService.getUserFavorites(user.getId());
+    public ModelAndView getMyFavorites(@SignedIn CurrentUser user) {
+        List<RecipeCard> favorites = recipeService.getUserFavorites(user.getId());
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("recipe-favorites");
@@ -199,8 +203,7 @@ public class RecipeController {
 
     @PostMapping("/{recipeId}/favorite")
     public ModelAndView addToFavorites(@PathVariable UUID recipeId,
-                                       @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+                                       @SignedIn User user) {
         recipeService.addToFavorites(user, recipeId);
         return new ModelAndView("redirect:/recipes/" + recipeId +"?success=added");
     }
@@ -208,8 +211,7 @@ public class RecipeController {
 
     @PostMapping("/{recipeId}/unfavorite")
     public ModelAndView removeFromFavorites(@PathVariable UUID recipeId,
-                                            @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
-        User user = userService.getById(authenticationMethadata.getUserId());
+                                            @SignedIn User user) {
         recipeService.removeFromFavorites(user, recipeId);
         return new ModelAndView("redirect:/recipes/" + recipeId +"?success=removed");
     }
@@ -234,15 +236,25 @@ public class RecipeController {
     @GetMapping("/search")
     public ModelAndView searchRecipes(
             @RequestParam(required = false) String q,
-            @AuthenticationPrincipal AuthenticationMethadata authenticationMethadata) {
+            @RequestParam(required = false) String after,
+            @SignedIn CurrentUser user) {
 
-        User user = userService.getById(authenticationMethadata.getUserId());
-        List<Recipe> searchResults = recipeService.searchRecipes(q);
 
         ModelAndView modelAndView = new ModelAndView("recipe-search-results");
         modelAndView.addObject("user", user);
-        modelAndView.addObject("recipes", searchResults);
         modelAndView.addObject("searchTerm", q);
+
+        if (q == null || q.isBlank()) {
+            Slice<RecipeCard> recipes = recipeService.getPublicRecipesPage(KeysetCursor.decode(after));
+            modelAndView.addObject("recipes", recipes.getContent());
+            modelAndView.addObject("nextCursor", KeysetCursor.nextOf(recipes, RecipeCard::getCreatedOn, RecipeCard::getId));
+            modelAndView.addObject("isFirstPage", after == null);
+            modelAndView.addObject("resultCount", recipeService.countPublicRecipes());
+            return modelAndView;
+        }
+
+        List<RecipeCard> searchResults = recipeService.searchRecipes(q);
+        modelAndView.addObject("recipes", searchResults);
         modelAndView.addObject("resultCount", searchResults.size());
 
         return modelAndView;
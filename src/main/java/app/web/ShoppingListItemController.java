@@ -1,24 +1,22 @@
 package app.web;
 
-import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
-import app.security.AuthenticationMethadata;
+import app.security.SignedIn;
 import app.shoppinglist.model.ShoppingListItem;
 import app.shoppinglist.service.ShoppingListItemService;
+import app.user.model.CurrentUser;
 import app.user.model.User;
-import app.user.service.UserService;
 import app.web.dto.ShoppingListItemRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -27,44 +25,21 @@ import java.util.UUID;
 public class ShoppingListItemController {
 
     private final ShoppingListItemService shoppingListItemService;
-    private final UserService userService;
     private final RecipeService recipeService;
 
     @Autowired
     public ShoppingListItemController(ShoppingListItemService shoppingListItemService,
-                                      UserService userService,
                                       RecipeService recipeService) {
         this.shoppingListItemService = shoppingListItemService;
-        this.userService = userService;
         this.recipeService = recipeService;
     }
 
 
 
     @GetMapping
-    public ModelAndView getShoppingList(@AuthenticationPrincipal AuthenticationMethadata auth) {
-        User user = userService.getById(auth.getUserId());
+    public ModelAndView getShoppingList(@SignedIn CurrentUser currentUser, @SignedIn User user) {
 
-        List<ShoppingListItem> items = shoppingListItemService.getUserShoppingList(user);
-        Map<String, List<ShoppingListItem>> categorizedItems =
-                shoppingListItemService.getCategorizedItems(user);
-
-        long totalItems = shoppingListItemService.getTotalItemsCount(user);
-        long completedItems = shoppingListItemService.getCompletedItemsCount(user);
-        long recipeCount = shoppingListItemService.getRecipeCount(user);
-        int completionPercentage = shoppingListItemService.getCompletionPercentage(user);
-
-        List<Recipe> userRecipes = recipeService.getRecipesByUser(user, null);
-
-        ModelAndView modelAndView = new ModelAndView("shopping-list");
-        modelAndView.addObject("user", user);
-        modelAndView.addObject("shoppingListItems", items);
-        modelAndView.addObject("categorizedItems", categorizedItems);
-        modelAndView.addObject("totalItems", totalItems);
-        modelAndView.addObject("completedItems", completedItems);
-        modelAndView.addObject("recipeCount", recipeCount);
-        modelAndView.addObject("completionPercentage", completionPercentage);
-        modelAndView.addObject("userRecipes", userRecipes);
+        ModelAndView modelAndView = shoppingListPage(currentUser, user);
         modelAndView.addObject("itemRequest", new ShoppingListItemRequest());
 
         return modelAndView;
@@ -75,25 +50,12 @@ public class ShoppingListItemController {
     @PostMapping("/add")
     public ModelAndView addItem(@Valid @ModelAttribute("itemRequest") ShoppingListItemRequest request,
                                 BindingResult bindingResult,
-                                @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                @SignedIn CurrentUser currentUser,
+                                @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
 
         if (bindingResult.hasErrors()) {
-            List<ShoppingListItem> items = shoppingListItemService.getUserShoppingList(user);
-            Map<String, List<ShoppingListItem>> categorizedItems =
-                    shoppingListItemService.getCategorizedItems(user);
-            List<Recipe> userRecipes = recipeService.getRecipesByUser(user, null);
-
-            ModelAndView modelAndView = new ModelAndView("shopping-list");
-            modelAndView.addObject("user", user);
-            modelAndView.addObject("shoppingListItems", items);
-            modelAndView.addObject("categorizedItems", categorizedItems);
-            modelAndView.addObject("totalItems", shoppingListItemService.getTotalItemsCount(user));
-            modelAndView.addObject("completedItems", shoppingListItemService.getCompletedItemsCount(user));
-            modelAndView.addObject("recipeCount", shoppingListItemService.getRecipeCount(user));
-            modelAndView.addObject("completionPercentage", shoppingListItemService.getCompletionPercentage(user));
-            modelAndView.addObject("userRecipes", userRecipes);
+            ModelAndView modelAndView = shoppingListPage(currentUser, user);
             modelAndView.addObject("itemRequest", request);
             return modelAndView;
         }
@@ -112,9 +74,8 @@ public class ShoppingListItemController {
 
     @PostMapping("/add-from-recipe")
     public ModelAndView addFromRecipe(@RequestParam("recipeId") UUID recipeId,
-                                      @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                      @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
 
         if (recipeId != null) {
             shoppingListItemService.addIngredientsFromRecipe(user, recipeId);
@@ -128,9 +89,8 @@ public class ShoppingListItemController {
     @PostMapping("/add-from-recipe/{recipeId}")
     public ModelAndView addFromRecipeDetail(@PathVariable UUID recipeId,
                                             @RequestParam(required = false) List<UUID> selectedIngredients,
-                                            @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                            @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
 
          if (selectedIngredients == null || selectedIngredients.isEmpty()) {
             shoppingListItemService.addIngredientsFromRecipe(user, recipeId);
@@ -144,9 +104,8 @@ public class ShoppingListItemController {
 
     @PutMapping("/toggle/{itemId}")
     public ModelAndView toggleItemCompletion(@PathVariable UUID itemId,
-                                             @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                             @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
         shoppingListItemService.toggleItemCompletion(itemId, user);
 
         return new ModelAndView("redirect:/shopping-list");
@@ -156,9 +115,9 @@ public class ShoppingListItemController {
 
     @GetMapping("/edit/{itemId}")
     public ModelAndView editItemForm(@PathVariable UUID itemId,
-                                     @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                     @SignedIn CurrentUser currentUser,
+                                     @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
         ShoppingListItem item = shoppingListItemService.getItemForEdit(itemId, user);
 
         ShoppingListItemRequest editRequest = ShoppingListItemRequest.builder()
@@ -170,7 +129,7 @@ public class ShoppingListItemController {
                 .build();
 
         ModelAndView modelAndView = new ModelAndView("shopping-list-edit");
-        modelAndView.addObject("user", user);
+        modelAndView.addObject("user", currentUser);
         modelAndView.addObject("item", item);
         modelAndView.addObject("itemRequest", editRequest);
 
@@ -183,15 +142,15 @@ public class ShoppingListItemController {
     public ModelAndView updateItem(@PathVariable UUID itemId,
                                    @Valid @ModelAttribute("itemRequest") ShoppingListItemRequest request,
                                    BindingResult bindingResult,
-                                   @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                   @SignedIn CurrentUser currentUser,
+                                   @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
 
         if (bindingResult.hasErrors()) {
             ShoppingListItem item = shoppingListItemService.getItemForEdit(itemId, user);
 
             ModelAndView modelAndView = new ModelAndView("shopping-list-edit");
-            modelAndView.addObject("user", user);
+            modelAndView.addObject("user", currentUser);
             modelAndView.addObject("item", item);
             modelAndView.addObject("itemRequest", request);
             return modelAndView;
@@ -211,9 +170,8 @@ public class ShoppingListItemController {
 
     @DeleteMapping("/delete/{itemId}")
     public ModelAndView deleteItem(@PathVariable UUID itemId,
-                                   @AuthenticationPrincipal AuthenticationMethadata auth) {
+                                   @SignedIn User user) {
 
-        User user = userService.getById(auth.getUserId());
         shoppingListItemService.deleteItem(itemId, user);
 
         return new ModelAndView("redirect:/shopping-list");
@@ -222,26 +180,33 @@ public class ShoppingListItemController {
   
 
     @PutMapping("/mark-all-complete")
-    public ModelAndView markAllComplete(@AuthenticationPrincipal AuthenticationMethadata auth) {
-        User user = userService.getById(auth.getUserId());
+    public ModelAndView markAllComplete(@SignedIn User user) {
         shoppingListItemService.markAllCompleted(user);
 
         return new ModelAndView("redirect:/shopping-list");
     }
 
     @DeleteMapping("/remove-completed")
-    public ModelAndView removeCompleted(@AuthenticationPrincipal AuthenticationMethadata auth) {
-        User user = userService.getById(auth.getUserId());
+    public ModelAndView removeCompleted(@SignedIn User user) {
         shoppingListItemService.removeCompletedItems(user);
 
         return new ModelAndView("redirect:/shopping-list");
     }
 
     @DeleteMapping("/clear-all")
-    public ModelAndView clearAll(@AuthenticationPrincipal AuthenticationMethadata auth) {
-        User user = userService.getById(auth.getUserId());
+    public ModelAndView clearAll(@SignedIn User user) {
         shoppingListItemService.clearAllItems(user);
 
         return new ModelAndView("redirect:/shopping-list");
     }
-}
\ No newline at end of file
+
+    private ModelAndView shoppingListPage(CurrentUser currentUser, User user) {
+        List<RecipeCard> userRecipes = recipeService.getRecipesByUser(user, null);
+
+        ModelAndView modelAndView = new ModelAndView("shopping-list");
+        modelAndView.addObject("user", currentUser);
+        modelAndView.addObject("shoppingList", shoppingListItemService.getShoppingListView(user));
+        modelAndView.addObject("userRecipes", userRecipes);
+        return modelAndView;
+    }
+}
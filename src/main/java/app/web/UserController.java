@@ -2,14 +2,13 @@ package app.web;
 
 
 
-import app.security.AuthenticationMethadata;
-import app.user.model.User;
+import app.security.SignedIn;
+import app.user.model.CurrentUser;
 import app.user.service.UserService;
 import app.web.dto.UserEditRequest;
 import app.web.mapper.DtoMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -31,8 +30,7 @@ public class UserController {
     }
 
     @GetMapping("/profile")
-    public ModelAndView getProfileMenu(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata){
-        User user = userService.getById(authenticationMethadata.getUserId());
+    public ModelAndView getProfileMenu(@SignedIn CurrentUser user){
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("edit-profile");
@@ -46,12 +44,11 @@ public class UserController {
 
 
     @PutMapping("/profile")
-    public ModelAndView updateUserProfile(@AuthenticationPrincipal AuthenticationMethadata authenticationMethadata,
+    public ModelAndView updateUserProfile(@SignedIn CurrentUser user,
                                           @Valid UserEditRequest userEditRequest,
                                           BindingResult bindingResult){
 
         if(bindingResult.hasErrors()){
-            User user = userService.getById(authenticationMethadata.getUserId());
             ModelAndView modelAndView = new ModelAndView();
             modelAndView.setViewName("edit-profile");
             modelAndView.addObject("user", user);
@@ -59,7 +56,7 @@ public class UserController {
             return modelAndView;
         }
 
-        userService.editUserDetails(authenticationMethadata.getUserId(), userEditRequest);
+        userService.editUserDetails(user.getId(), userEditRequest);
 
         return new ModelAndView("redirect:/home");
     }
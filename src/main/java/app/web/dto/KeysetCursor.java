@@ -0,0 +1,65 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset position in a listing ordered by (createdOn DESC, id DESC), such as the recipe
+ * listings and a recipe's comment thread. Encoded as "createdOn_id" so it can travel
+ * in a query parameter.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime createdOn;
+    private final UUID id;
+
+    /**
+     * Returns null for a missing or malformed value, which means "first page".
+     */
+    public static KeysetCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+
+        try {
+            return new KeysetCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cursor pointing after the last item of the slice, or null when there are no more pages.
+     */
+    public static <T> String nextOf(Slice<T> slice, Function<T, LocalDateTime> createdOn, Function<T, UUID> id) {
+        List<T> content = slice.getContent();
+        if (!slice.hasNext() || content.isEmpty()) {
+            return null;
+        }
+
+        T last = content.get(content.size() - 1);
+        return new KeysetCursor(createdOn.apply(last), id.apply(last)).encode();
+    }
+
+    public String encode() {
+        return createdOn + SEPARATOR + id;
+    }
+}
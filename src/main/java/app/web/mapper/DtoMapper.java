@@ -1,13 +1,13 @@
 package app.web.mapper;
 
 
-import app.user.model.User;
+import app.user.model.CurrentUser;
 import app.web.dto.UserEditRequest;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class DtoMapper {
-    public static UserEditRequest mapUserToUserEditRequest(User user) {
+    public static UserEditRequest mapUserToUserEditRequest(CurrentUser user) {
         return UserEditRequest.builder()
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
@@ -42,7 +42,7 @@ public class RecipeMapper {
                 .fiber(recipe.getFiber())
                 .sugar(recipe.getSugar())
                 .sodium(recipe.getSodium())
-                .categoryNames(recipe.getCategories().stream()
+                .categoryNames(recipe.getCategories() == null ? null : recipe.getCategories().stream()
                         .map(Category::getName)
                         .collect(Collectors.toSet()))
                 .recipeIngredients(ingredientRequests)
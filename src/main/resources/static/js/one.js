@@ -124,6 +124,26 @@ document.addEventListener('DOMContentLoaded', function() {
         });
     }
 
+    // ========== Load More Comments ==========
+    const commentList = document.querySelector('.comment-list');
+    if (commentList) {
+        commentList.addEventListener('click', function(e) {
+            const link = e.target.closest('.load-more-comments');
+            if (!link) {
+                return;
+            }
+            e.preventDefault();
+
+            link.classList.add('disabled');
+            fetch(link.href, { headers: { 'X-Requested-With': 'XMLHttpRequest' } })
+                .then(response => response.ok ? response.text() : Promise.reject(response.status))
+                .then(html => {
+                    link.closest('.comment-page-more').outerHTML = html;
+                })
+                .catch(() => link.classList.remove('disabled'));
+        });
+    }
+
     // ========== Recipe Dropdown Enhancement ==========
     const recipeSelect = document.querySelector('select[name="recipeId"]');
     if (recipeSelect) {
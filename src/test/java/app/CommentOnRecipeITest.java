@@ -86,7 +86,6 @@ public class CommentOnRecipeITest {
         Recipe testRecipe = Recipe.builder()
                 .title("Spaghetti Carbonara")
                 .description("Classic Italian pasta")
-                .ingredients("Pasta, eggs, bacon, cheese")
                 .instructions("Cook pasta, mix ingredients")
                 .prepTimeMinutes(30)
                 .servingSize(4)
@@ -0,0 +1,126 @@
+package app;
+
+import app.comment.model.Comment;
+import app.comment.repository.CommentRepository;
+import app.recipe.model.Recipe;
+import app.recipe.repository.RecipeRepository;
+import app.security.AuthenticationMethadata;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class CommentsPageAccessITest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User author;
+    private User stranger;
+
+    @BeforeEach
+    void setUp() {
+        author = saveUser("Owner");
+        stranger = saveUser("Stranger");
+    }
+
+    @Test
+    void getCommentsPage_ofAnotherUsersPrivateRecipe_returnsNotFound() throws Exception {
+        Recipe recipe = saveRecipe(false, false);
+
+        mockMvc.perform(get("/comments/recipe/" + recipe.getId()).with(user(principal(stranger))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCommentsPage_ofOwnPrivateRecipe_returnsComments() throws Exception {
+        Recipe recipe = saveRecipe(false, false);
+
+        mockMvc.perform(get("/comments/recipe/" + recipe.getId()).with(user(principal(author))))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("comments"));
+    }
+
+    @Test
+    void getCommentsPage_ofDeletedRecipe_returnsNotFound() throws Exception {
+        Recipe recipe = saveRecipe(true, true);
+
+        mockMvc.perform(get("/comments/recipe/" + recipe.getId()).with(user(principal(author))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCommentsPage_ofPublicRecipe_returnsComments() throws Exception {
+        Recipe recipe = saveRecipe(true, false);
+
+        mockMvc.perform(get("/comments/recipe/" + recipe.getId()).with(user(principal(stranger))))
+                .andExpect(status().isOk());
+    }
+
+    private Recipe saveRecipe(boolean isPublic, boolean deleted) {
+        Recipe recipe = recipeRepository.save(Recipe.builder()
+                .title("Family ragu")
+                .description("Sunday sauce")
+                .instructions("Simmer for hours")
+                .author(author)
+                .isPublic(isPublic)
+                .deleted(deleted)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        commentRepository.save(Comment.builder()
+                .content("Just like grandma's")
+                .rating(5)
+                .author(author)
+                .recipe(recipe)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        return recipe;
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username.toLowerCase() + "@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    private static AuthenticationMethadata principal(User user) {
+        return new AuthenticationMethadata(user.getId(), user.getUsername(), user.getPassword(),
+                user.getRole(), user.isActive());
+    }
+}
@@ -0,0 +1,76 @@
+package app;
+
+import app.ingredient.model.Ingredient;
+import app.ingredient.repository.IngredientRepository;
+import app.ingredient.service.IngredientDictionary;
+import app.ingredient.service.IngredientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IngredientConcurrencyITest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private IngredientService ingredientService;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private IngredientDictionary ingredientDictionary;
+
+    @Test
+    void givenManyThreadsCreatingTheSameNewIngredients_thenEveryCallSucceedsWithOneRowPerName() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // Fresh names every round, and each thread asks for them in its own order
+                List<String> names = List.of("stress-" + round + "-a", "Stress-" + round + "-B",
+                        "stress-" + round + "-c", "STRESS-" + round + "-D");
+                ingredientDictionary.clear();
+
+                CyclicBarrier start = new CyclicBarrier(THREADS);
+                List<Future<Map<String, Ingredient>>> results = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    List<String> ordered = new ArrayList<>(names);
+                    Collections.rotate(ordered, t);
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return ingredientService.findOrCreateAll(ordered);
+                    }));
+                }
+
+                Map<String, UUID> idsByName = new HashMap<>();
+                for (Future<Map<String, Ingredient>> result : results) {
+                    Map<String, Ingredient> resolved = result.get(30, TimeUnit.SECONDS);
+                    assertThat(resolved).containsOnlyKeys(names);
+
+                    resolved.forEach((name, ingredient) -> {
+                        UUID previous = idsByName.putIfAbsent(name, ingredient.getId());
+                        assertThat(ingredient.getId()).isNotNull();
+                        if (previous != null) {
+                            assertThat(ingredient.getId()).isEqualTo(previous);
+                        }
+                    });
+                }
+
+                List<String> normalizedNames = names.stream().map(IngredientDictionary::normalize).toList();
+                assertThat(ingredientRepository.findByNameIn(normalizedNames)).hasSize(names.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
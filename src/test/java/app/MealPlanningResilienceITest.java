@@ -0,0 +1,133 @@
+package app;
+
+import app.mealplanning.client.ResilientMealPlanningClient;
+import app.mealplanning.client.dto.MealPlanRequest;
+import app.mealplanning.client.dto.MealPlanResponse;
+import app.mealplanning.service.MealPlanningService;
+import app.mealplanning.service.WeeklyMealPlans;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the Feign client against a WireMock stand-in for the meal-planning service, with short timeouts and a
+ * small breaker window so each failure mode shows up quickly.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.cloud.openfeign.client.config.meal-planning-svc.read-timeout=300",
+        "resilience4j.retry.instances.mealPlanning.wait-duration=10ms",
+        "resilience4j.circuitbreaker.instances.mealPlanning.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.mealPlanning.minimum-number-of-calls=4"
+})
+public class MealPlanningResilienceITest {
+
+    private static final String WEEKLY = "/api/v1/meal-plans/weekly";
+
+    private static final WireMockServer mealPlanningStub = new WireMockServer(wireMockConfig().dynamicPort());
+
+    static {
+        mealPlanningStub.start();
+    }
+
+    @DynamicPropertySource
+    static void mealPlanningUrl(DynamicPropertyRegistry registry) {
+        registry.add("meal-planning-svc.base-url", mealPlanningStub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        mealPlanningStub.stop();
+    }
+
+    @Autowired
+    private MealPlanningService mealPlanningService;
+
+    @Autowired
+    private ResilientMealPlanningClient resilientMealPlanningClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDate weekStart = LocalDate.of(2025, 1, 6);
+
+    @BeforeEach
+    void setUp() {
+        mealPlanningStub.resetAll();
+        circuitBreakerRegistry.circuitBreaker(ResilientMealPlanningClient.MEAL_PLANNING).reset();
+    }
+
+    @Test
+    void whenWeeklyGetFailsOnce_thenItIsRetried() {
+        mealPlanningStub.stubFor(get(urlPathEqualTo(WEEKLY)).inScenario("flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(serviceUnavailable())
+                .willSetStateTo("recovered"));
+        mealPlanningStub.stubFor(get(urlPathEqualTo(WEEKLY)).inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(okJson("[{\"mealName\":\"Pasta\",\"mealType\":\"LUNCH\"}]")));
+
+        WeeklyMealPlans result = mealPlanningService.getWeeklyMealPlans(userId, weekStart);
+
+        assertThat(result.getMealPlans()).extracting(MealPlanResponse::getMealName).containsExactly("Pasta");
+        mealPlanningStub.verify(2, getRequestedFor(urlPathEqualTo(WEEKLY)));
+    }
+
+    @Test
+    void whenWeeklyGetIsSlowerThanReadTimeout_thenGiveUpAfterRetriesAndShowEmptyWeek() {
+        mealPlanningStub.stubFor(get(urlPathEqualTo(WEEKLY)).willReturn(okJson("[]").withFixedDelay(1000)));
+
+        WeeklyMealPlans result = mealPlanningService.getWeeklyMealPlans(userId, weekStart);
+
+        assertThat(result.getMealPlans()).isEmpty();
+        assertThat(result.isStale()).isTrue();
+        mealPlanningStub.verify(3, getRequestedFor(urlPathEqualTo(WEEKLY)));
+    }
+
+    @Test
+    void whenAddFails_thenItIsNotRetried() {
+        mealPlanningStub.stubFor(post(urlPathEqualTo("/api/v1/meal-plans")).willReturn(serviceUnavailable()));
+
+        assertThrows(FeignException.class,
+                () -> resilientMealPlanningClient.addMealPlan(MealPlanRequest.builder().userId(userId).build()));
+
+        mealPlanningStub.verify(1, postRequestedFor(urlPathEqualTo("/api/v1/meal-plans")));
+    }
+
+    @Test
+    void whenFailuresFillTheWindow_thenBreakerOpensAndStopsCallingTheService() {
+        mealPlanningStub.stubFor(get(urlPathEqualTo(WEEKLY)).willReturn(serverError()));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.class,
+                    () -> resilientMealPlanningClient.getWeeklyMealPlans(userId, weekStart.toString()));
+        }
+        mealPlanningStub.resetRequests();
+
+        assertThrows(CallNotPermittedException.class,
+                () -> resilientMealPlanningClient.getWeeklyMealPlans(userId, weekStart.toString()));
+        assertThat(mealPlanningService.getWeeklyMealPlans(userId, weekStart).isStale()).isTrue();
+        mealPlanningStub.verify(0, getRequestedFor(urlPathEqualTo(WEEKLY)));
+    }
+}
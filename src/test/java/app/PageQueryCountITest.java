@@ -0,0 +1,193 @@
+package app;
+
+import app.category.model.Category;
+import app.category.repository.CategoryRepository;
+import app.comment.service.CommentService;
+import app.mealplanning.client.MealPlanningClient;
+import app.querycount.QueryCountConfiguration;
+import app.querycount.QueryCounter;
+import app.recipe.model.DietaryTag;
+import app.recipe.service.RecipeService;
+import app.security.AuthenticationMethadata;
+import app.shoppinglist.service.ShoppingListItemService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.web.dto.CommentCreateRequest;
+import app.web.dto.RecipeCreateRequest;
+import app.web.dto.RecipeIngredientRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Upper bounds on the SQL statements each main page issues for one request. The data set is small but has
+ * several recipes, categories, ingredient lines and comments, so a per-row lazy load shows up as a budget
+ * overrun. When a change makes a page cheaper, lower its budget so the gain cannot silently regress.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+@Import(QueryCountConfiguration.class)
+public class PageQueryCountITest {
+
+    private static final int RECIPES = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ShoppingListItemService shoppingListItemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @MockitoBean
+    private MealPlanningClient mealPlanningClient;
+
+    private User user;
+    private List<UUID> recipeIds;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("Curator")
+                .email("curator@gmail.com")
+                .password("123123")
+                .role(UserRole.ADMIN)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        // "Dinner" is one of the categories CategoryInit seeds at startup
+        categoryRepository.save(Category.builder().name("Italian").build());
+
+        recipeIds = new ArrayList<>();
+        for (int i = 0; i < RECIPES; i++) {
+            recipeIds.add(createRecipe("Pasta " + i));
+        }
+
+        UUID first = recipeIds.get(0);
+        commentService.createComment(comment("Lovely", 5), first, user);
+        commentService.createComment(comment("Too salty", 3), first, user);
+        recipeService.addToFavorites(user, first);
+        shoppingListItemService.addIngredientsFromRecipe(user, first);
+        shoppingListItemService.addIngredientsFromRecipe(user, recipeIds.get(1));
+
+        when(mealPlanningClient.getWeeklyMealPlans(any(), anyString())).thenReturn(ResponseEntity.ok(List.of()));
+    }
+
+    @Test
+    void homePage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/home", 5);
+    }
+
+    @Test
+    void recipeDetailPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/recipes/" + recipeIds.get(0), 5);
+    }
+
+    @Test
+    void searchPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/recipes/search?q=pasta", 3);
+    }
+
+    @Test
+    void categoryDetailPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/categories/Italian", 5);
+    }
+
+    @Test
+    void shoppingListPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/shopping-list", 4);
+    }
+
+    @Test
+    void mealPlanningPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/meal-planning", 5);
+    }
+
+    @Test
+    void adminPage_staysWithinQueryBudget() throws Exception {
+        assertWithinBudget("/admin", 3);
+    }
+
+    private void assertWithinBudget(String url, int budget) throws Exception {
+        List<String> statements = QueryCounter.record(() -> mockMvc.perform(get(url).with(user(principal())))
+                .andExpect(status().isOk()));
+
+        assertThat(statements)
+                .as("SQL statements issued by GET %s", url)
+                .hasSizeLessThanOrEqualTo(budget);
+    }
+
+    private AuthenticationMethadata principal() {
+        return new AuthenticationMethadata(user.getId(), user.getUsername(), user.getPassword(),
+                user.getRole(), user.isActive());
+    }
+
+    private UUID createRecipe(String title) {
+        RecipeCreateRequest createRequest = new RecipeCreateRequest();
+        createRequest.setTitle(title);
+        createRequest.setDescription("Weeknight pasta");
+        createRequest.setInstructions("Boil, toss, serve.");
+        createRequest.setPrepTimeMinutes(10);
+        createRequest.setCookTimeMinutes(15);
+        createRequest.setServingSize(2);
+        createRequest.setCategoryNames(Set.of("Italian", "Dinner"));
+        createRequest.setDietaryTags(new HashSet<>(Set.of(DietaryTag.VEGETARIAN, DietaryTag.NUT_FREE)));
+        createRequest.setRecipeIngredients(new ArrayList<>(List.of(
+                line("query budget pasta", "500", "g"),
+                line("query budget tomato", "3", "pieces"),
+                line("query budget basil", "1", "bunch"))));
+        return recipeService.createRecipe(createRequest, user).getId();
+    }
+
+    private static RecipeIngredientRequest line(String name, String quantity, String unit) {
+        RecipeIngredientRequest line = new RecipeIngredientRequest();
+        line.setIngredientName(name);
+        line.setQuantity(quantity);
+        line.setUnit(unit);
+        return line;
+    }
+
+    private static CommentCreateRequest comment(String content, int rating) {
+        CommentCreateRequest request = new CommentCreateRequest();
+        request.setContent(content);
+        request.setRating(rating);
+        return request;
+    }
+}
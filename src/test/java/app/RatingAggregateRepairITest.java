@@ -0,0 +1,131 @@
+package app;
+
+import app.comment.model.Comment;
+import app.comment.repository.CommentRepository;
+import app.recipe.model.Recipe;
+import app.recipe.repository.RecipeRepository;
+import app.recipe.service.RatingAggregateRepair;
+import app.recipe.service.RecipeService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class RatingAggregateRepairITest {
+
+    @Autowired
+    private RatingAggregateRepair ratingAggregateRepair;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder()
+                .username("Rater")
+                .email("rater@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void repairAll_rebuildsAggregatesFromCommentsWrittenBehindTheirBack() {
+        Recipe commented = saveRecipe("Carbonara");
+        Recipe uncommented = saveRecipe("Cacio e pepe");
+        saveComment(commented, 5);
+        saveComment(commented, 2);
+
+        int repaired = ratingAggregateRepair.repairAll();
+
+        assertThat(repaired).isEqualTo(1);
+        Recipe reloaded = recipeRepository.findById(commented.getId()).orElseThrow();
+        assertThat(reloaded.getRatingSum()).isEqualTo(7);
+        assertThat(reloaded.getRatingCount()).isEqualTo(2);
+        assertThat(recipeRepository.findById(uncommented.getId()).orElseThrow().getRatingCount()).isZero();
+    }
+
+    @Test
+    void repairAll_leavesConsistentAggregatesAlone() {
+        Recipe recipe = saveRecipe("Amatriciana");
+        saveComment(recipe, 4);
+        ratingAggregateRepair.repairAll();
+
+        assertThat(ratingAggregateRepair.repairAll()).isZero();
+    }
+
+    @Test
+    void repairAggregate_skipsRowsThatMovedSinceTheyWereRead() {
+        Recipe recipe = saveRecipe("Gricia");
+        saveComment(recipe, 3);
+
+        RecipeRepository.RatingTotals readBeforeTheComment = totals(recipe.getId(), 0, 0, 3, 1);
+
+        // A concurrent comment moves the row after the batch was read
+        recipeService.adjustRatingAggregate(recipe.getId(), 4, 1);
+
+        assertThat(recipeService.repairRatingAggregates(List.of(readBeforeTheComment))).isZero();
+        assertThat(recipeRepository.findById(recipe.getId()).orElseThrow().getRatingSum()).isEqualTo(4);
+    }
+
+    private static RecipeRepository.RatingTotals totals(UUID recipeId, long ratingSum, int ratingCount,
+                                                        long commentRatingSum, long commentCount) {
+        return new RecipeRepository.RatingTotals() {
+            public UUID getRecipeId() { return recipeId; }
+            public long getRatingSum() { return ratingSum; }
+            public int getRatingCount() { return ratingCount; }
+            public long getCommentRatingSum() { return commentRatingSum; }
+            public long getCommentCount() { return commentCount; }
+        };
+    }
+
+    private Recipe saveRecipe(String title) {
+        return recipeRepository.save(Recipe.builder()
+                .title(title)
+                .description("Roman pasta")
+                .instructions("Cook pasta, mix ingredients")
+                .author(author)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    private void saveComment(Recipe recipe, int rating) {
+        commentRepository.save(Comment.builder()
+                .content("Rated " + rating)
+                .rating(rating)
+                .author(author)
+                .recipe(recipe)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+}
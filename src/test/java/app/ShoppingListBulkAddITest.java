@@ -0,0 +1,145 @@
+package app;
+
+import app.recipe.service.RecipeService;
+import app.shoppinglist.model.ShoppingListItem;
+import app.shoppinglist.service.ShoppingListItemService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.web.dto.RecipeCreateRequest;
+import app.web.dto.RecipeIngredientRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares adding a whole recipe to the shopping list with and without JDBC batching,
+ * for recipe sizes we actually see (20-50 ingredients). Statement counts are asserted,
+ * timings are only logged since they depend on the machine.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ShoppingListBulkAddITest {
+
+    private static final int[] RECIPE_SIZES = {20, 35, 50};
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ShoppingListItemService shoppingListItemService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void addingRecipeIngredients_isBatchedIntoFewStatements() {
+        User user = userRepository.save(User.builder()
+                .username("Shopper")
+                .email("shopper@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : RECIPE_SIZES) {
+            UUID recipeId = createRecipe(user, size);
+
+            Result unbatched = addToShoppingList(user, recipeId, 1, statistics);
+            Result batched = addToShoppingList(user, recipeId, 50, statistics);
+
+            log.info("{} ingredients: unbatched {} statements, {} us/row; batched {} statements, {} us/row",
+                    size, unbatched.statements(), unbatched.microsPerRow(size),
+                    batched.statements(), batched.microsPerRow(size));
+
+            assertThat(unbatched.rows()).isEqualTo(size);
+            assertThat(batched.rows()).isEqualTo(size);
+            // Reading the recipe costs the same either way; the item inserts and their source-recipe
+            // links each collapse into one batch
+            assertThat(unbatched.statements() - batched.statements()).isEqualTo(2 * (size - 1));
+        }
+    }
+
+    private Result addToShoppingList(User user, UUID recipeId, int batchSize, Statistics statistics) {
+        long statements = 0;
+        long nanos = Long.MAX_VALUE;
+        int rows = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Result result = transactionTemplate.execute(status -> {
+                // Start from an empty list so every round inserts instead of consolidating into earlier rounds
+                shoppingListItemService.clearAllItems(user);
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                statistics.clear();
+
+                long start = System.nanoTime();
+                List<ShoppingListItem> items = shoppingListItemService.addIngredientsFromRecipe(user, recipeId);
+                entityManager.flush();
+                long elapsed = System.nanoTime() - start;
+
+                return new Result(items.size(), statistics.getPrepareStatementCount(), elapsed);
+            });
+
+            rows = result.rows();
+            statements = result.statements();
+            nanos = Math.min(nanos, result.nanos());
+        }
+
+        return new Result(rows, statements, nanos);
+    }
+
+    private UUID createRecipe(User user, int size) {
+        List<RecipeIngredientRequest> lines = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            RecipeIngredientRequest line = new RecipeIngredientRequest();
+            line.setIngredientName("bulk " + size + " ingredient " + i);
+            line.setQuantity("100");
+            line.setUnit("g");
+            lines.add(line);
+        }
+
+        RecipeCreateRequest createRequest = new RecipeCreateRequest();
+        createRequest.setTitle("Recipe with " + size + " ingredients");
+        createRequest.setInstructions("Mix everything.");
+        createRequest.setCategoryNames(Set.of());
+        createRequest.setRecipeIngredients(lines);
+        return recipeService.createRecipe(createRequest, user).getId();
+    }
+
+    private record Result(int rows, long statements, long nanos) {
+
+        long microsPerRow(int size) {
+            return nanos / 1000 / size;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package app;
+
+import app.shoppinglist.model.ShoppingListItem;
+import app.shoppinglist.repository.ShoppingListItemRepository;
+import app.shoppinglist.service.ShoppingListItemService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ShoppingListBulkOperationsITest {
+
+    @Autowired
+    private ShoppingListItemService shoppingListItemService;
+
+    @Autowired
+    private ShoppingListItemRepository shoppingListItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private User otherUser;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser("Shopper");
+        otherUser = createUser("Neighbour");
+
+        // 300 items for the user, every third one already completed, plus a few for someone else
+        List<ShoppingListItem> items = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            items.add(item(user, "item " + i, i % 3 == 0));
+        }
+        for (int i = 0; i < 5; i++) {
+            items.add(item(otherUser, "other " + i, i % 2 == 0));
+        }
+        shoppingListItemRepository.saveAll(items);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenMarkAllCompleted_thenSingleStatementUpdatesOnlyOpenItems() {
+        int updated = shoppingListItemService.markAllCompleted(user);
+
+        assertThat(updated).isEqualTo(200);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(shoppingListItemRepository.countByUserAndCompleted(user, false)).isZero();
+        assertThat(shoppingListItemRepository.countByUserAndCompleted(otherUser, false)).isEqualTo(2);
+    }
+
+    @Test
+    void whenRemoveCompletedItems_thenSetBasedDeleteRemovesOnlyCompletedItems() {
+        int deleted = shoppingListItemService.removeCompletedItems(user);
+
+        assertThat(deleted).isEqualTo(100);
+        // one statement clears the source-recipe links, one deletes the items
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(shoppingListItemRepository.countByUser(user)).isEqualTo(200);
+        assertThat(shoppingListItemRepository.countByUser(otherUser)).isEqualTo(5);
+    }
+
+    @Test
+    void whenClearAllItems_thenSetBasedDeleteRemovesOnlyThatUsersItems() {
+        int deleted = shoppingListItemService.clearAllItems(user);
+
+        assertThat(deleted).isEqualTo(300);
+        // one statement clears the source-recipe links, one deletes the items
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(shoppingListItemRepository.countByUser(user)).isZero();
+        assertThat(shoppingListItemRepository.countByUser(otherUser)).isEqualTo(5);
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username.toLowerCase() + "@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    private static ShoppingListItem item(User owner, String name, boolean completed) {
+        return ShoppingListItem.builder()
+                .name(name)
+                .quantity("1")
+                .completed(completed)
+                .user(owner)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package app;
+
+import app.recipe.model.Recipe;
+import app.recipe.service.RecipeService;
+import app.shoppinglist.model.ShoppingListItem;
+import app.shoppinglist.model.ShoppingListView;
+import app.shoppinglist.service.ShoppingListItemService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.web.dto.RecipeCreateRequest;
+import app.web.dto.RecipeIngredientRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ShoppingListConsolidationITest {
+
+    @Autowired
+    private ShoppingListItemService shoppingListItemService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("Planner")
+                .email("planner@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void whenAddingRecipesSharingIngredients_thenQuantitiesConsolidatedPerIngredient() {
+        UUID pancakes = createRecipe("Pancakes",
+                line("consolidation flour", "250", "g"),
+                line("consolidation milk", "1 1/2", "cup"),
+                line("consolidation salt", "1", "pinch"));
+        UUID bread = createRecipe("Bread",
+                line("consolidation flour", "0.75", "kg"),
+                line("consolidation milk", "1/2", "cups"),
+                line("consolidation salt", "1", "pinch"),
+                line("consolidation yeast", "7", "g"));
+
+        shoppingListItemService.addIngredientsFromRecipe(user, pancakes);
+        shoppingListItemService.addIngredientsFromRecipe(user, bread);
+
+        List<ShoppingListItem> list = shoppingListItemService.getUserShoppingList(user);
+        Map<String, List<ShoppingListItem>> items = list.stream()
+                .collect(Collectors.groupingBy(ShoppingListItem::getName));
+
+        assertThat(list).hasSize(5);
+        assertThat(items.get("consolidation flour").get(0).getQuantity()).isEqualTo("1");
+        assertThat(items.get("consolidation flour").get(0).getUnit()).isEqualTo("kg");
+        assertThat(items.get("consolidation milk").get(0).getQuantity()).isEqualTo("2");
+        assertThat(items.get("consolidation milk").get(0).getUnit()).isEqualTo("cup");
+        // "pinch" is not a unit we can add up, so each recipe keeps its own line
+        assertThat(items.get("consolidation salt")).hasSize(2);
+        assertThat(items.get("consolidation yeast").get(0).getQuantity()).isEqualTo("7");
+    }
+
+    @Test
+    void whenQuantitiesIncompatibleOrItemCompleted_thenSeparateItemsKept() {
+        UUID soup = createRecipe("Soup", line("consolidation garlic", "2", "clove"));
+        UUID stew = createRecipe("Stew", line("consolidation garlic", "1", "piece"));
+
+        shoppingListItemService.addIngredientsFromRecipe(user, soup);
+        shoppingListItemService.addIngredientsFromRecipe(user, stew);
+        assertThat(shoppingListItemService.getUserShoppingList(user)).hasSize(2);
+
+        shoppingListItemService.markAllCompleted(user);
+        shoppingListItemService.addIngredientsFromRecipe(user, soup);
+
+        List<ShoppingListItem> items = shoppingListItemService.getUserShoppingList(user);
+        assertThat(items).hasSize(3);
+        assertThat(items).filteredOn(item -> !item.isCompleted())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo("2"));
+    }
+
+    @Test
+    void whenLineMergedIntoExistingItem_thenBothRecipesAreRecordedAndCounted() {
+        UUID soup = createRecipe("Soup", line("consolidation onion", "1", "kg"));
+        UUID stew = createRecipe("Stew", line("consolidation onion", "500", "g"));
+
+        shoppingListItemService.addIngredientsFromRecipe(user, soup);
+        List<ShoppingListItem> touched = shoppingListItemService.addIngredientsFromRecipe(user, stew);
+
+        assertThat(touched).singleElement().satisfies(item -> {
+            assertThat(item.getQuantity()).isEqualTo("1.5");
+            assertThat(item.getRecipe().getId()).isEqualTo(soup);
+            assertThat(item.getSourceRecipes()).extracting(Recipe::getId).containsExactlyInAnyOrder(soup, stew);
+        });
+
+        ShoppingListView view = shoppingListItemService.getShoppingListView(user);
+        assertThat(view.getTotalItems()).isEqualTo(1);
+        assertThat(view.getRecipeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenItemWasAddedByHand_thenRecipeLinesAreNotMergedIntoIt() {
+        UUID cake = createRecipe("Cake", line("consolidation butter", "200", "g"));
+        // Same ingredient as the recipe line, typed in by the user
+        shoppingListItemService.addItem(user, "consolidation butter", "100", "g", null, null);
+
+        shoppingListItemService.addIngredientsFromRecipe(user, cake);
+
+        assertThat(shoppingListItemService.getUserShoppingList(user))
+                .extracting(ShoppingListItem::getQuantity)
+                .containsExactlyInAnyOrder("100", "200");
+    }
+
+    private UUID createRecipe(String title, RecipeIngredientRequest... lines) {
+        RecipeCreateRequest createRequest = new RecipeCreateRequest();
+        createRequest.setTitle(title);
+        createRequest.setInstructions("Cook it.");
+        createRequest.setCategoryNames(Set.of());
+        createRequest.setRecipeIngredients(new ArrayList<>(List.of(lines)));
+        return recipeService.createRecipe(createRequest, user).getId();
+    }
+
+    private static RecipeIngredientRequest line(String name, String quantity, String unit) {
+        RecipeIngredientRequest line = new RecipeIngredientRequest();
+        line.setIngredientName(name);
+        line.setQuantity(quantity);
+        line.setUnit(unit);
+        return line;
+    }
+}
@@ -0,0 +1,240 @@
+package app;
+
+import app.recipe.repository.RecipeRepository;
+import app.recipe.service.RecipeService;
+import app.recipeingredient.model.RecipeIngredient;
+import app.recipeingredient.repository.RecipeIngredientRepository;
+import app.recipeingredient.service.RecipeIngredientPositionInit;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.repository.UserRepository;
+import app.web.dto.RecipeCreateRequest;
+import app.web.dto.RecipeIngredientRequest;
+import app.web.dto.RecipeUpdateRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UpdateRecipeIngredientsITest {
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecipeIngredientPositionInit recipeIngredientPositionInit;
+
+    @Autowired
+    private RecipeIngredientRepository recipeIngredientRepository;
+
+    private User author;
+    private List<String> names;
+    private UUID recipeId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder()
+                .username("Emi123")
+                .email("emi@gmail.com")
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        names = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            names.add("ingredient " + i);
+        }
+
+        RecipeCreateRequest createRequest = new RecipeCreateRequest();
+        createRequest.setTitle("Big Stew");
+        createRequest.setInstructions("Put everything in the pot.");
+        createRequest.setCategoryNames(Set.of());
+        createRequest.setRecipeIngredients(lines(names));
+        recipeId = recipeService.createRecipe(createRequest, author).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenNothingChangesInIngredients_thenNoIngredientRowIsWritten() {
+        recipeService.updateRecipe(recipeId, updateRequest(lines(names)), author);
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        // Only the recipe row itself
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(storedLines()).isEqualTo(names.stream().map(name -> name + ":1").toList());
+    }
+
+    @Test
+    void whenLinesAreEditedInPlace_thenOnlyThoseRowsAreWritten() {
+        List<String> edited = new ArrayList<>(names);
+        edited.set(29, "new last");
+        List<RecipeIngredientRequest> lines = lines(edited);
+        lines.get(6).setQuantity("7");
+
+        recipeService.updateRecipe(recipeId, updateRequest(lines), author);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        // The recipe row plus the line whose quantity changed
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+
+        List<String> stored = storedLines();
+        assertThat(stored).hasSize(30);
+        assertThat(stored.get(6)).isEqualTo("ingredient 6:7");
+        assertThat(stored.get(29)).isEqualTo("new last:1");
+    }
+
+    @Test
+    void whenLineIsInsertedAtTheTop_thenShiftedRowsAreRenumberedNotReinserted() {
+        List<String> edited = new ArrayList<>(names);
+        edited.add(0, "new first");
+        edited.remove("ingredient 20");
+
+        recipeService.updateRecipe(recipeId, updateRequest(lines(edited)), author);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        // The recipe row plus ingredients 0-19, which moved down one place. 21-29 are back where they were.
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(21);
+        assertThat(storedLines()).isEqualTo(edited.stream().map(name -> name + ":1").toList());
+    }
+
+    @Test
+    void whenLinesAreReordered_thenOrderIsKept() {
+        List<String> reordered = new ArrayList<>(names);
+        Collections.swap(reordered, 0, 1);
+
+        recipeService.updateRecipe(recipeId, updateRequest(lines(reordered)), author);
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        // The recipe row plus the two lines that swapped places
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(3);
+        assertThat(storedLines()).isEqualTo(reordered.stream().map(name -> name + ":1").toList());
+    }
+
+    @Test
+    void whenAnIngredientIsListedTwice_thenEachLineKeepsItsOwnRow() {
+        List<RecipeIngredientRequest> lines = lines(List.of("salt", "flour", "salt"));
+        lines.get(2).setQuantity("2");
+        RecipeCreateRequest createRequest = new RecipeCreateRequest();
+        createRequest.setTitle("Bread");
+        createRequest.setInstructions("Knead, rest, bake.");
+        createRequest.setCategoryNames(Set.of());
+        createRequest.setRecipeIngredients(lines);
+        UUID breadId = recipeService.createRecipe(createRequest, author).getId();
+        statistics.clear();
+
+        lines.get(2).setQuantity("3");
+        recipeService.updateRecipe(breadId, updateRequest(lines), author);
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        // The recipe row plus the second salt line, the first one is left alone
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(storedLines(breadId)).containsExactly("salt:1", "flour:1", "salt:3");
+
+        statistics.clear();
+        recipeService.updateRecipe(breadId, updateRequest(lines.subList(1, 3)), author);
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(storedLines(breadId)).containsExactly("flour:1", "salt:3");
+    }
+
+    @Test
+    void whenLinesKeepBeingInsertedAtTheSameSpot_thenOrderIsKept() {
+        List<String> edited = new ArrayList<>(names);
+        for (int i = 0; i < 15; i++) {
+            edited.add(1, "squeezed " + i);
+            recipeService.updateRecipe(recipeId, updateRequest(lines(edited)), author);
+        }
+
+        assertThat(storedLines()).isEqualTo(edited.stream().map(name -> name + ":1").toList());
+    }
+
+    @Test
+    void whenRowsPredateThePositionColumn_thenEntryOrderIsRestoredAtStartup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<RecipeIngredient> rows = recipeRepository.findById(recipeId).orElseThrow().getRecipeIngredients();
+            LocalDateTime enteredAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setPosition(0);
+                rows.get(i).setCreatedOn(enteredAt.plusSeconds(i));
+            }
+        });
+
+        recipeIngredientPositionInit.run(null);
+
+        assertThat(storedLines()).isEqualTo(names.stream().map(name -> name + ":1").toList());
+        assertThat(recipeIngredientRepository.findRecipeIdsWithUnpositionedIngredients()).isEmpty();
+    }
+
+    private List<String> storedLines() {
+        return storedLines(recipeId);
+    }
+
+    private List<String> storedLines(UUID id) {
+        return transactionTemplate.execute(status -> recipeRepository.findById(id).orElseThrow()
+                .getRecipeIngredients().stream()
+                .map(recipeIngredient -> recipeIngredient.getIngredient().getName() + ":" + recipeIngredient.getQuantity())
+                .toList());
+    }
+
+    private RecipeUpdateRequest updateRequest(List<RecipeIngredientRequest> lines) {
+        RecipeUpdateRequest updateRequest = new RecipeUpdateRequest();
+        updateRequest.setTitle("Bigger Stew");
+        updateRequest.setInstructions("Put everything in the pot.");
+        updateRequest.setCategoryNames(Set.of());
+        updateRequest.setIsPublic(true);
+        updateRequest.setRecipeIngredients(lines);
+        return updateRequest;
+    }
+
+    private static List<RecipeIngredientRequest> lines(List<String> names) {
+        List<RecipeIngredientRequest> lines = new ArrayList<>();
+        for (String name : names) {
+            RecipeIngredientRequest line = new RecipeIngredientRequest();
+            line.setIngredientName(name);
+            line.setQuantity("1");
+            line.setUnit("g");
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,62 @@
+package app;
+
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserSort;
+import app.user.repository.UserRepository;
+import app.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+public class UserSearchITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("chef_anna", "anna@gmail.com");
+        saveUser("chefxanna", "chefx@gmail.com");
+        saveUser("chef%bob", "bob@gmail.com");
+    }
+
+    @Test
+    void searchUsers_treatsUnderscoreInQueryLiterally() {
+        assertThat(userService.searchUsers("chef_", null, null, UserSort.USERNAME, 0))
+                .extracting(User::getUsername)
+                .containsExactly("chef_anna");
+    }
+
+    @Test
+    void searchUsers_treatsPercentInQueryLiterally() {
+        assertThat(userService.searchUsers("chef%", null, null, UserSort.USERNAME, 0))
+                .extracting(User::getUsername)
+                .containsExactly("chef%bob");
+    }
+
+    private void saveUser(String username, String email) {
+        userRepository.save(User.builder()
+                .username(username)
+                .email(email)
+                .password("123123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+}
@@ -4,7 +4,6 @@ import app.category.model.Category;
 import app.category.repository.CategoryRepository;
 import app.category.service.CategoryService;
 import app.exception.CategoryNotFoundException;
-import app.recipe.model.Recipe;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -16,6 +15,7 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -66,26 +66,31 @@ public class CategoryServiceUTest {
 
     @Test
     public void whenGetCategoryRecipeCounts_thenReturnMapWithAllCategoryCounts() {
-        Recipe recipeOne = Recipe.builder().build();
-        Recipe recipeTwo = Recipe.builder().build();
+        CategoryRepository.RecipeCount dessert = recipeCount("Dessert", 2L);
+        CategoryRepository.RecipeCount lunch = recipeCount("Lunch", 0L);
 
-        Category dessert = Category.builder()
-                .name("Dessert")
-                .recipes(new HashSet<>(Arrays.asList(recipeOne, recipeTwo)))
-                .build();
-
-        Category lunch = Category.builder()
-                .name("Lunch")
-                .recipes(new HashSet<>(Arrays.asList(recipeOne, recipeTwo)))
-                .build();
-
-        when(categoryRepository.findAll()).thenReturn(Arrays.asList(dessert, lunch));
+        when(categoryRepository.countRecipesByCategory()).thenReturn(Arrays.asList(dessert, lunch));
 
         Map<String, Long> result = categoryService.getCategoryRecipeCounts();
 
         assertThat(result).hasSize(2);
         assertThat(result.get("Dessert")).isEqualTo(2L);
-        assertThat(result.get("Lunch")).isEqualTo(2L);
+        assertThat(result.get("Lunch")).isEqualTo(0L);
+        verify(categoryRepository, never()).findAll();
+    }
+
+    private static CategoryRepository.RecipeCount recipeCount(String name, long recipes) {
+        return new CategoryRepository.RecipeCount() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long getRecipes() {
+                return recipes;
+            }
+        };
     }
 
 
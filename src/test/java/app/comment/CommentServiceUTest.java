@@ -3,6 +3,7 @@ package app.comment;
 import app.comment.model.Comment;
 import app.comment.repository.CommentRepository;
 import app.comment.service.CommentService;
+import app.comment.service.RecipeCommentStatistics;
 import app.exception.CommentNotFoundException;
 import app.exception.UnauthorizedAccessException;
 import app.recipe.model.Recipe;
@@ -10,12 +11,17 @@ import app.recipe.service.RecipeService;
 import app.user.model.User;
 import app.web.dto.CommentCreateRequest;
 import app.web.dto.CommentEditRequest;
+import app.web.dto.KeysetCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +29,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +42,9 @@ public class CommentServiceUTest {
     @Mock
     private  RecipeService recipeService;
 
+    @Mock
+    private RecipeCommentStatistics recipeCommentStatistics;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -58,6 +68,7 @@ public class CommentServiceUTest {
 
         when(recipeService.getById(recipeId)).thenReturn(recipe);
         when(commentRepository.save(any(Comment.class))).thenReturn(savedComment);
+        when(recipeService.adjustRatingAggregate(recipeId, 5, 1)).thenReturn(1);
 
         Comment result = commentService.createComment(request, recipeId, author);
 
@@ -68,6 +79,8 @@ public class CommentServiceUTest {
         assertThat(result.getRating()).isEqualTo(5);
         verify(commentRepository).save(any(Comment.class));
         verify(recipeService).getById(recipeId);
+        verify(recipeService).adjustRatingAggregate(recipeId, 5, 1);
+        verify(recipeCommentStatistics).commentAdded(true);
     }
 
     @Test
@@ -94,11 +107,13 @@ public class CommentServiceUTest {
     public void whenUpdateComment_thenReturnUpdatedComment() {
         UUID commentId = UUID.randomUUID();
         User author = User.builder().id(UUID.randomUUID()).build();
+        Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
 
         Comment existingComment = Comment.builder()
                 .content("Old content")
                 .rating(3)
                 .author(author)
+                .recipe(recipe)
                 .build();
 
         CommentEditRequest editRequest = CommentEditRequest.builder()
@@ -114,6 +129,7 @@ public class CommentServiceUTest {
         assertThat(result.getContent()).isEqualTo("New content");
         assertThat(result.getRating()).isEqualTo(5);
         verify(commentRepository).save(any(Comment.class));
+        verify(recipeService).adjustRatingAggregate(recipe.getId(), 2, 0);
     }
 
 
@@ -134,6 +150,33 @@ public class CommentServiceUTest {
 
     }
 
+    @Test
+    public void givenNoCursor_whenGetCommentsPage_thenReturnFirstPage() {
+        UUID recipeId = UUID.randomUUID();
+        Slice<Comment> page = new SliceImpl<>(List.of(Comment.builder().build()));
+
+        when(commentRepository.findFirstPageByRecipeId(recipeId, PageRequest.of(0, CommentService.PAGE_SIZE))).thenReturn(page);
+
+        Slice<Comment> result = commentService.getCommentsPage(recipeId, null);
+
+        assertThat(result).isSameAs(page);
+    }
+
+    @Test
+    public void givenCursor_whenGetCommentsPage_thenSeekPastCursor() {
+        UUID recipeId = UUID.randomUUID();
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 5, 15, 10, 0), UUID.randomUUID());
+        Slice<Comment> page = new SliceImpl<>(List.of());
+
+        when(commentRepository.findPageByRecipeIdAfter(recipeId, cursor.getCreatedOn(), cursor.getId(),
+                PageRequest.of(0, CommentService.PAGE_SIZE))).thenReturn(page);
+
+        Slice<Comment> result = commentService.getCommentsPage(recipeId, cursor);
+
+        assertThat(result).isSameAs(page);
+        verify(commentRepository, never()).findFirstPageByRecipeId(any(), any());
+    }
+
     @Test
     public void whenDeleteComment_andUserIsNotAuthor_thenThrowException() {
         UUID commentId = UUID.randomUUID();
@@ -152,70 +195,22 @@ public class CommentServiceUTest {
     public void whenDeleteComment_thenDeleteComment() {
         UUID commentId = UUID.randomUUID();
         User author = User.builder().id(UUID.randomUUID()).build();
+        Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
 
         Comment comment = Comment.builder()
                 .author(author)
+                .recipe(recipe)
+                .rating(4)
                 .build();
 
         when(commentRepository.findByIdWithDetails(commentId)).thenReturn(Optional.of(comment));
+        when(recipeService.adjustRatingAggregate(recipe.getId(), -4, -1)).thenReturn(2);
 
         commentService.deleteComment(commentId, author);
 
         verify(commentRepository).delete(comment);
-    }
-
-    @Test
-    public void givenRecipeWithNoComments_whenGetAverageRating_thenReturnNull() {
-        UUID recipeId = UUID.randomUUID();
-        when(commentRepository.findByRecipeIdWithAuthor(recipeId)).thenReturn(List.of());
-
-        Double result = commentService.getAverageRatingForRecipe(recipeId);
-
-        assertThat(result).isNull();
-        verify(commentRepository).findByRecipeIdWithAuthor(recipeId);
-    }
-
-
-    @Test
-    public void givenRecipeWithComments_whenGetAverageRatingFromRecipes_thenReturnAverageRating() {
-        UUID recipeId = UUID.randomUUID();
-        Comment c1 = Comment.builder().rating(5).build();
-        Comment c2 = Comment.builder().rating(3).build();
-
-        when(commentRepository.findByRecipeIdWithAuthor(recipeId)).thenReturn(List.of(c1, c2));
-
-        Double result=commentService.getAverageRatingForRecipe(recipeId);
-        assertThat(result).isNotNull();
-        assertThat(result).isEqualTo(4.0);
-        verify(commentRepository).findByRecipeIdWithAuthor(recipeId);
-
-    }
-
-    @Test
-    void givenRecipeWithComments_whenGetTotalRatings_thenReturnCount() {
-        UUID recipeId = UUID.randomUUID();
-        Comment c1 = Comment.builder().build();
-        Comment c2 = Comment.builder().build();
-        Comment c3 = Comment.builder().build();
-        when(commentRepository.findByRecipeIdWithAuthor(recipeId)).thenReturn(List.of(c1, c2, c3));
-
-        int count = commentService.getTotalRatingsForRecipe(recipeId);
-
-        assertThat(count).isEqualTo(3);
-        verify(commentRepository).findByRecipeIdWithAuthor(recipeId);
-
-    }
-
-    @Test
-    void givenRecipeWithNoComments_whenGetTotalRatings_thenReturnZero() {
-        UUID recipeId = UUID.randomUUID();
-        when(commentRepository.findByRecipeIdWithAuthor(recipeId))
-                .thenReturn(List.of());
-
-        int count = commentService.getTotalRatingsForRecipe(recipeId);
-
-        assertThat(count).isEqualTo(0);
-        verify(commentRepository).findByRecipeIdWithAuthor(recipeId);
+        verify(recipeService).adjustRatingAggregate(recipe.getId(), -4, -1);
+        verify(recipeCommentStatistics).commentRemoved(false);
     }
 
 
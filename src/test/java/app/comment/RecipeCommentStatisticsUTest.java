@@ -0,0 +1,102 @@
+package app.comment;
+
+import app.comment.service.RecipeCommentStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecipeCommentStatisticsUTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecipeCommentStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new RecipeCommentStatistics(meterRegistry);
+    }
+
+    @Test
+    void whenCommentsAddedAndRemoved_thenCountersFollowLifecycle() {
+        statistics.publicRecipeAdded();
+        statistics.publicRecipeAdded();
+
+        statistics.commentAdded(true);
+        statistics.commentAdded(false);
+        statistics.commentRemoved(false);
+
+        assertThat(statistics.getTotalComments()).isEqualTo(1);
+        assertThat(statistics.getCommentedRecipes()).isEqualTo(1);
+        assertThat(statistics.getPublicRecipes()).isEqualTo(2);
+        assertThat(statistics.getCoverage()).isEqualTo(0.5);
+    }
+
+    @Test
+    void whenCommentAddedInTransaction_thenCountersMoveOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.commentAdded(true);
+            assertThat(statistics.getTotalComments()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(statistics.getTotalComments()).isEqualTo(1);
+        assertThat(statistics.getCommentedRecipes()).isEqualTo(1);
+    }
+
+    @Test
+    void whenTransactionRollsBack_thenCountersAreUnchanged() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.publicRecipeAdded();
+            statistics.commentAdded(true);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(statistics.getTotalComments()).isZero();
+        assertThat(statistics.getCommentedRecipes()).isZero();
+        assertThat(statistics.getPublicRecipes()).isZero();
+    }
+
+    @Test
+    void whenReconcile_thenCountersReplacedAndExposedAsGauges() {
+        statistics.commentAdded(true);
+
+        RecipeCommentStatistics.Snapshot before = statistics.snapshot();
+        assertThat(statistics.reconcile(before, 40, 10, 20)).isTrue();
+
+        assertThat(statistics.getTotalComments()).isEqualTo(40);
+        assertThat(meterRegistry.get("recipe.comments.total").gauge().value()).isEqualTo(40);
+        assertThat(meterRegistry.get("recipe.comments.commented.recipes").gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("recipe.comments.public.recipes").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("recipe.comments.coverage").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void whenUpdateLandsWhileCounting_thenReconcileIsSkippedAndTheUpdateKept() {
+        statistics.publicRecipeAdded();
+        RecipeCommentStatistics.Snapshot before = statistics.snapshot();
+
+        // Committed after the snapshot, so the counts below may or may not include it
+        statistics.commentAdded(true);
+
+        assertThat(statistics.reconcile(before, 0, 0, 1)).isFalse();
+        assertThat(statistics.getTotalComments()).isEqualTo(1);
+        assertThat(statistics.getCommentedRecipes()).isEqualTo(1);
+    }
+
+    @Test
+    void givenNoPublicRecipes_whenGetCoverage_thenReturnZero() {
+        statistics.commentAdded(true);
+
+        assertThat(statistics.getCoverage()).isZero();
+    }
+}
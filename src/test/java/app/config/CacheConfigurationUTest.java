@@ -0,0 +1,44 @@
+package app.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheConfigurationUTest {
+
+    @Test
+    void whenRegionIsConfigured_thenItsCacheUsesThatSizeAndTtl() {
+        CacheRegionProperties properties = new CacheRegionProperties();
+        CacheRegionProperties.Region currentUsers = new CacheRegionProperties.Region();
+        currentUsers.setMaximumSize(1);
+        currentUsers.setTimeToLive(Duration.ofMinutes(5));
+        properties.getRegions().put("currentUsers", currentUsers);
+
+        CacheManager cacheManager = new CacheConfiguration().cacheManager(properties);
+
+        Cache<Object, Object> cache = nativeCache(cacheManager, "currentUsers");
+        assertThat(cache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(1);
+        assertThat(cache.policy().expireAfterWrite().orElseThrow().getExpiresAfter()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(cache.policy().isRecordingStats()).isTrue();
+    }
+
+    @Test
+    void whenRegionIsNotConfigured_thenItsCacheUsesTheDefaults() {
+        CacheRegionProperties properties = new CacheRegionProperties();
+
+        CacheManager cacheManager = new CacheConfiguration().cacheManager(properties);
+
+        Cache<Object, Object> cache = nativeCache(cacheManager, "categories");
+        assertThat(cache.policy().eviction().orElseThrow().getMaximum()).isEqualTo(1000);
+        assertThat(cache.policy().expireAfterWrite().orElseThrow().getExpiresAfter()).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
@@ -0,0 +1,90 @@
+package app.ingredient;
+
+import app.ingredient.model.Ingredient;
+import app.ingredient.repository.IngredientRepository;
+import app.ingredient.service.IngredientDictionary;
+import app.ingredient.service.IngredientService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IngredientServiceUTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Spy
+    private IngredientDictionary ingredientDictionary = new IngredientDictionary();
+
+    @InjectMocks
+    private IngredientService ingredientService;
+
+    @Test
+    void givenCachedName_whenFindOrCreateAll_thenNoLookupQuery() {
+        UUID id = UUID.randomUUID();
+        Ingredient reference = Ingredient.builder().id(id).name("flour").build();
+        ingredientDictionary.put("flour", id);
+
+        when(ingredientRepository.getReferenceById(id)).thenReturn(reference);
+
+        Map<String, Ingredient> result = ingredientService.findOrCreateAll(List.of(" Flour "));
+
+        assertThat(result).containsEntry(" Flour ", reference);
+        verify(ingredientRepository, never()).findByNameIn(anyCollection());
+        verify(ingredientRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void givenUnknownNames_whenFindOrCreateAll_thenOneLookupAndUpsertOfTheRest() {
+        Ingredient sugar = Ingredient.builder().id(UUID.randomUUID()).name("sugar").build();
+        Ingredient eggs = Ingredient.builder().id(UUID.randomUUID()).name("eggs").build();
+
+        when(ingredientRepository.findByNameIn(Set.of("sugar", "eggs"))).thenReturn(List.of(sugar));
+        when(ingredientRepository.findByNameInForShare(Set.of("eggs"))).thenReturn(List.of(eggs));
+
+        Map<String, Ingredient> result = ingredientService.findOrCreateAll(List.of("Sugar", "eggs", "EGGS", " "));
+
+        assertThat(result).containsOnlyKeys("Sugar", "eggs", "EGGS");
+        assertThat(result.get("Sugar")).isSameAs(sugar);
+        assertThat(result.get("eggs")).isSameAs(eggs);
+        assertThat(result.get("EGGS")).isSameAs(eggs);
+        assertThat(ingredientDictionary.get("sugar")).isEqualTo(sugar.getId());
+        assertThat(ingredientDictionary.get("eggs")).isEqualTo(eggs.getId());
+        verify(ingredientRepository, times(1)).findByNameIn(anyCollection());
+        verify(ingredientRepository, times(1)).insertIfAbsent(any(UUID.class), eq("eggs"), any(LocalDateTime.class));
+        verify(ingredientRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void givenExistingIngredient_whenFindByNameOptional_thenCachedForNextLookup() {
+        Ingredient salt = Ingredient.builder().id(UUID.randomUUID()).name("salt").build();
+
+        when(ingredientRepository.findByNameIgnoreCase("salt")).thenReturn(Optional.of(salt));
+        when(ingredientRepository.getReferenceById(salt.getId())).thenReturn(salt);
+
+        assertThat(ingredientService.findByNameOptional("Salt")).isSameAs(salt);
+        assertThat(ingredientService.findByNameOptional("salt ")).isSameAs(salt);
+
+        verify(ingredientRepository, times(1)).findByNameIgnoreCase("salt");
+    }
+
+    @Test
+    void givenBlankName_whenFindByNameOptional_thenReturnNull() {
+        assertThat(ingredientService.findByNameOptional("  ")).isNull();
+
+        verifyNoInteractions(ingredientRepository);
+    }
+}
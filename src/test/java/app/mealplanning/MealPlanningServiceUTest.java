@@ -1,10 +1,14 @@
 package app.mealplanning;
 
-import app.mealplanning.client.MealPlanningClient;
+import app.mealplanning.client.ResilientMealPlanningClient;
 import app.mealplanning.client.dto.MealPlanResponse;
 import app.mealplanning.service.MealPlanningService;
+import app.mealplanning.service.WeeklyMealPlanCache;
+import app.mealplanning.service.WeeklyMealPlans;
 import app.recipe.model.Recipe;
 import app.recipe.service.RecipeService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -12,8 +16,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,11 +31,14 @@ import static org.mockito.Mockito.*;
 public class MealPlanningServiceUTest {
 
     @Mock
-    private MealPlanningClient mealPlanningClient;
+    private ResilientMealPlanningClient mealPlanningClient;
 
     @Mock
     private RecipeService recipeService;
 
+    @Mock
+    private WeeklyMealPlanCache weeklyMealPlanCache;
+
     @InjectMocks
     private MealPlanningService mealPlanningService;
 
@@ -62,7 +72,7 @@ public class MealPlanningServiceUTest {
     void getWeeklyMealPlans_shouldReturnMealPlans() {
         UUID userId = UUID.randomUUID();
 
-        LocalDate weekStart = LocalDate.now();
+        LocalDate weekStart = LocalDate.of(2025, 1, 6);
         String weekStartString = weekStart.toString();
 
         MealPlanResponse mockMeal = new MealPlanResponse();
@@ -72,14 +82,68 @@ public class MealPlanningServiceUTest {
                 .thenReturn(ResponseEntity.ok(mockResponse));
 
 
-        List<MealPlanResponse> result =
+        WeeklyMealPlans result =
                 mealPlanningService.getWeeklyMealPlans(userId, weekStart);
 
 
-        assertThat(result).hasSize(1);
+        assertThat(result.getMealPlans()).hasSize(1);
+        assertThat(result.isStale()).isFalse();
 
         verify(mealPlanningClient, times(1))
                 .getWeeklyMealPlans(userId, weekStartString);
+        verify(weeklyMealPlanCache).put(userId, weekStart, mockResponse);
+    }
+
+
+    @Test
+    void getWeeklyMealPlans_whenWeekIsCachedAndFresh_shouldNotCallTheService() {
+        UUID userId = UUID.randomUUID();
+        LocalDate weekStart = LocalDate.of(2025, 1, 6);
+        List<MealPlanResponse> cachedPlans = List.of(new MealPlanResponse());
+
+        when(weeklyMealPlanCache.get(userId, weekStart))
+                .thenReturn(Optional.of(new WeeklyMealPlanCache.CachedWeek(cachedPlans, Instant.now())));
+
+        WeeklyMealPlans result = mealPlanningService.getWeeklyMealPlans(userId, weekStart);
+
+        assertThat(result.getMealPlans()).isEqualTo(cachedPlans);
+        assertThat(result.isStale()).isFalse();
+        verifyNoInteractions(mealPlanningClient);
+    }
+
+
+    @Test
+    void getWeeklyMealPlans_whenServiceFailsAfterCacheExpired_shouldServeCachedWeekAsStale() {
+        UUID userId = UUID.randomUUID();
+        LocalDate weekStart = LocalDate.of(2025, 1, 6);
+        List<MealPlanResponse> cachedPlans = List.of(new MealPlanResponse());
+
+        when(weeklyMealPlanCache.get(userId, weekStart))
+                .thenReturn(Optional.of(new WeeklyMealPlanCache.CachedWeek(cachedPlans, Instant.now().minus(Duration.ofHours(1)))));
+        when(mealPlanningClient.getWeeklyMealPlans(userId, weekStart.toString()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(
+                        CircuitBreaker.ofDefaults(ResilientMealPlanningClient.MEAL_PLANNING)));
+
+        WeeklyMealPlans result = mealPlanningService.getWeeklyMealPlans(userId, weekStart);
+
+        assertThat(result.getMealPlans()).isEqualTo(cachedPlans);
+        assertThat(result.isStale()).isTrue();
+    }
+
+
+    @Test
+    void getWeeklyMealPlans_whenCircuitBreakerIsOpen_shouldReturnEmptyList() {
+        UUID userId = UUID.randomUUID();
+        LocalDate weekStart = LocalDate.of(2025, 1, 6);
+
+        when(mealPlanningClient.getWeeklyMealPlans(userId, weekStart.toString()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(
+                        CircuitBreaker.ofDefaults(ResilientMealPlanningClient.MEAL_PLANNING)));
+
+        WeeklyMealPlans result = mealPlanningService.getWeeklyMealPlans(userId, weekStart);
+
+        assertThat(result.getMealPlans()).isEmpty();
+        assertThat(result.isStale()).isTrue();
     }
 
 
@@ -91,15 +155,17 @@ public class MealPlanningServiceUTest {
         mealPlanningService.deleteMealPlan(mealPlanId, userId);
 
         verify(mealPlanningClient, times(1)).deleteMealPlan(mealPlanId, userId);
+        verify(weeklyMealPlanCache).removed(userId, mealPlanId);
     }
 
     @Test
-    void resolveWeekStart_shouldReturnProvidedDate() {
+    void resolveWeekStart_shouldReturnMondayOfTheProvidedDate() {
         LocalDate providedDate = LocalDate.of(2024, 12, 5);
 
         LocalDate result = mealPlanningService.resolveWeekStart(providedDate);
 
-        assertThat(result).isEqualTo(providedDate);
+        assertThat(result).isEqualTo(LocalDate.of(2024, 12, 2));
+        assertThat(mealPlanningService.resolveWeekStart(result)).isEqualTo(result);
     }
 
     @Test
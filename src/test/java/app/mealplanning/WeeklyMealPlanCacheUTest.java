@@ -0,0 +1,98 @@
+package app.mealplanning;
+
+import app.mealplanning.client.dto.MealPlanResponse;
+import app.mealplanning.service.WeeklyMealPlanCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WeeklyMealPlanCacheUTest {
+
+    private final WeeklyMealPlanCache cache = new WeeklyMealPlanCache(new ConcurrentMapCacheManager());
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDate thisWeek = LocalDate.of(2025, 1, 6);
+    private final LocalDate nextWeek = thisWeek.plusDays(7);
+
+    @Test
+    void whenPlanIsAdded_thenOnlyTheCachedWeekContainingItsDateGetsIt() {
+        cache.put(userId, thisWeek, List.of());
+        cache.put(userId, nextWeek, List.of());
+
+        MealPlanResponse sunday = mealPlan(thisWeek.plusDays(6));
+        cache.added(userId, sunday);
+
+        assertThat(cache.get(userId, thisWeek).orElseThrow().getMealPlans()).containsExactly(sunday);
+        assertThat(cache.get(userId, nextWeek).orElseThrow().getMealPlans()).isEmpty();
+        assertThat(cache.get(userId, thisWeek).orElseThrow().isFresh()).isTrue();
+    }
+
+    @Test
+    void whenPlanIsRemoved_thenItDisappearsFromTheCachedWeekHoldingIt() {
+        MealPlanResponse monday = mealPlan(thisWeek);
+        MealPlanResponse tuesday = mealPlan(thisWeek.plusDays(1));
+        MealPlanResponse nextMonday = mealPlan(nextWeek);
+        cache.put(userId, thisWeek, List.of(monday, tuesday));
+        cache.put(userId, nextWeek, List.of(nextMonday));
+
+        cache.removed(userId, nextMonday.getId());
+        cache.removed(userId, monday.getId());
+
+        assertThat(cache.get(userId, thisWeek).orElseThrow().getMealPlans()).containsExactly(tuesday);
+        assertThat(cache.get(userId, nextWeek).orElseThrow().getMealPlans()).isEmpty();
+    }
+
+    @Test
+    void whenRemovedPlanIsNotCached_thenCachedWeeksAreLeftAlone() {
+        MealPlanResponse monday = mealPlan(thisWeek);
+        cache.put(userId, thisWeek, List.of(monday));
+        cache.put(UUID.randomUUID(), thisWeek, List.of());
+
+        cache.removed(userId, UUID.randomUUID());
+
+        assertThat(cache.get(userId, thisWeek).orElseThrow().getMealPlans()).containsExactly(monday);
+    }
+
+    @Test
+    void whenUserHasNothingCached_thenChangesAreIgnored() {
+        cache.added(userId, mealPlan(thisWeek));
+        cache.removed(userId, UUID.randomUUID());
+
+        assertThat(cache.get(userId, thisWeek)).isEmpty();
+    }
+
+    @Test
+    void whenWeekIsRequestedByAnyOfItsDays_thenTheMondayEntryIsUsed() {
+        List<MealPlanResponse> mealPlans = List.of(mealPlan(thisWeek.plusDays(2)));
+        cache.put(userId, thisWeek.plusDays(3), mealPlans);
+
+        assertThat(cache.get(userId, thisWeek).orElseThrow().getMealPlans()).isEqualTo(mealPlans);
+        assertThat(cache.get(userId, thisWeek.plusDays(6))).isPresent();
+        assertThat(cache.get(userId, nextWeek)).isEmpty();
+    }
+
+    @Test
+    void whenWeekIsEvicted_thenTheUsersOtherWeeksStay() {
+        cache.put(userId, thisWeek, List.of(mealPlan(thisWeek)));
+        cache.put(userId, nextWeek, List.of(mealPlan(nextWeek)));
+
+        cache.evict(userId, thisWeek.plusDays(4));
+
+        assertThat(cache.get(userId, thisWeek)).isEmpty();
+        assertThat(cache.get(userId, nextWeek)).isPresent();
+    }
+
+    private static MealPlanResponse mealPlan(LocalDate plannedDate) {
+        return MealPlanResponse.builder()
+                .id(UUID.randomUUID())
+                .mealName("Pasta")
+                .mealType("LUNCH")
+                .plannedDate(plannedDate)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package app.querycount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Records the SQL statements issued on the current thread while a measurement is running.
+ * MockMvc requests and {@code TransactionTemplate} callbacks run on the calling thread, so a measurement
+ * covers exactly one request or transaction and ignores schedulers and other background work.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Runs the action and returns the statements it prepared, in order.
+     */
+    public static List<String> record(Callable<?> action) throws Exception {
+        List<String> outer = RECORDED.get();
+        List<String> statements = new ArrayList<>();
+        RECORDED.set(statements);
+        try {
+            action.call();
+        } finally {
+            if (outer != null) {
+                outer.addAll(statements);
+                RECORDED.set(outer);
+            } else {
+                RECORDED.remove();
+            }
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    static void statementPrepared(String sql) {
+        List<String> statements = RECORDED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package app.querycount;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Hands out connections that report every statement they prepare to {@link QueryCounter}.
+ * A JDBC batch is prepared once, so it counts as a single statement no matter how many rows it carries.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (STATEMENT_FACTORIES.contains(method.getName())) {
+                        QueryCounter.statementPrepared(sqlOf(method, args));
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static String sqlOf(Method method, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof String sql) {
+            return sql;
+        }
+        return "<" + method.getName() + ">";
+    }
+}
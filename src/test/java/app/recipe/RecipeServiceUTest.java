@@ -2,12 +2,17 @@ package app.recipe;
 
 import app.category.model.Category;
 import app.category.service.CategoryService;
+import app.comment.service.RecipeCommentStatistics;
 import app.exception.RecipeNotFoundException;
 import app.exception.UnauthorizedAccessException;
+import app.recipe.model.DietaryTag;
 import app.recipe.model.DifficultyLevel;
 import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
+import app.recipe.model.RecipeSort;
 import app.recipe.repository.RecipeRepository;
 import app.recipe.service.RecipeService;
+import app.search.service.RecipeSearchIndex;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.RecipeCreateRequest;
@@ -17,6 +22,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -24,6 +33,7 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +49,12 @@ public class RecipeServiceUTest {
     @Mock
     private  UserService userService;
 
+    @Mock
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    private RecipeCommentStatistics recipeCommentStatistics;
+
     @InjectMocks
     private RecipeService recipeService;
 
@@ -62,7 +78,6 @@ public class RecipeServiceUTest {
                 .prepTimeMinutes(4)
                 .servingSize(6)
                 .difficultyLevel(DifficultyLevel.EASY)
-                .ingredients("salt")
                 .imageUrl("www.image.jpg")
                 .calories(100)
                 .protein(3.0)
@@ -163,6 +178,8 @@ public class RecipeServiceUTest {
                 .author(author)
                 .isPublic(true)
                 .categories(new HashSet<>())
+                .dietaryTags(new HashSet<>())
+                .recipeIngredients(new ArrayList<>())
                 .build();
 
         RecipeUpdateRequest request = RecipeUpdateRequest.builder()
@@ -174,7 +191,6 @@ public class RecipeServiceUTest {
                 .servingSize(4)
                 .difficultyLevel(DifficultyLevel.EASY)
                 .imageUrl("cake.jpg")
-                .ingredients("flour, sugar")
                 .calories(300)
                 .protein(5.0)
                 .carbs(50.0)
@@ -284,32 +300,31 @@ public class RecipeServiceUTest {
     @Test
     public void whenGetRecipesByUserWithLimit_thenReturnLimitedRecipes() {
         User user = User.builder().build();
-        Recipe recipe1 = Recipe.builder().build();
-        Recipe recipe2 = Recipe.builder().build();
-        Recipe recipe3 = Recipe.builder().build();
+        RecipeCard recipe1 = card("Soup");
+        RecipeCard recipe2 = card("Stew");
 
-        when(recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user))
-                .thenReturn(List.of(recipe1, recipe2, recipe3));
+        when(recipeRepository.findCardsByAuthorFirstPage(user, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(recipe1, recipe2)));
 
-        List<Recipe> result = recipeService.getRecipesByUser(user, 2);
+        List<RecipeCard> result = recipeService.getRecipesByUser(user, 2);
 
         assertThat(result).hasSize(2);
-        verify(recipeRepository).findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user);
+        verify(recipeRepository).findCardsByAuthorFirstPage(user, PageRequest.of(0, 2));
     }
 
     @Test
     public void whenGetRecipesByUserWithNoLimit_thenReturnAllUserRecipes(){
 
         User user= User.builder().build();
-        Recipe recipe1= Recipe.builder().build();
-        Recipe recipe2= Recipe.builder().build();
+        RecipeCard recipe1= card("Soup");
+        RecipeCard recipe2= card("Stew");
 
 
-        when(recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user)).thenReturn(List.of(recipe1, recipe2));
-        List<Recipe> result = recipeService.getRecipesByUser(user, null);
+        when(recipeRepository.findCardsByAuthor(user)).thenReturn(List.of(recipe1, recipe2));
+        List<RecipeCard> result = recipeService.getRecipesByUser(user, null);
 
         assertThat(result.size()).isEqualTo(2);
-        verify(recipeRepository).findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user);
+        verify(recipeRepository).findCardsByAuthor(user);
 
 
     }
@@ -317,100 +332,94 @@ public class RecipeServiceUTest {
     @Test
     public void whenGetRecipesByUserWithZeroLimit_thenReturnAllRecipes() {
         User user = User.builder().build();
-        Recipe recipe1 = Recipe.builder().build();
-        Recipe recipe2 = Recipe.builder().build();
+        RecipeCard recipe1 = card("Soup");
+        RecipeCard recipe2 = card("Stew");
 
-        when(recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user)).thenReturn(List.of(recipe1, recipe2));
+        when(recipeRepository.findCardsByAuthor(user)).thenReturn(List.of(recipe1, recipe2));
 
-        List<Recipe> result = recipeService.getRecipesByUser(user, 0);
+        List<RecipeCard> result = recipeService.getRecipesByUser(user, 0);
 
         assertThat(result).hasSize(2);
     }
 
-
     @Test
-    public void whenGetPublicRecipes_thenReturnOnlyPublicRecipesFromCategory(){
+    public void whenGetRecipesByUser_thenCategoryNamesFilledInWithOneQuery() {
+        User user = User.builder().build();
+        RecipeCard soup = card("Soup");
+        RecipeCard stew = card("Stew");
 
-        Recipe publicRecipe1 = Recipe.builder()
-                .title("Public 1")
-                .isPublic(true)
-                .build();
+        when(recipeRepository.findCardsByAuthor(user)).thenReturn(List.of(soup, stew));
+        when(recipeRepository.findCategoryNamesByRecipeIdIn(any())).thenReturn(List.of(
+                categoryName(soup, "Lunch"),
+                categoryName(soup, "Dinner"),
+                categoryName(stew, "Dinner")));
 
-        Recipe publicRecipe2 = Recipe.builder()
-                .title("Public 2")
-                .isPublic(true)
-                .build();
+        recipeService.getRecipesByUser(user, null);
 
-        Recipe privateRecipe = Recipe.builder()
-                .title("Private")
-                .isPublic(false)
-                .build();
+        assertThat(soup.getCategories()).containsExactlyInAnyOrder("Lunch", "Dinner");
+        assertThat(stew.getCategories()).containsExactly("Dinner");
+        verify(recipeRepository).findCategoryNamesByRecipeIdIn(Set.of(soup.getId(), stew.getId()));
+    }
 
-        Category category = Category.builder()
-                .recipes(Set.of(publicRecipe1, publicRecipe2, privateRecipe))
-                .build();
 
+    @Test
+    public void whenGetSortedCategoryPage_thenPagesWithTheSortOfTheOption(){
+        Category category = Category.builder().name("Dinner").build();
+        RecipeCard soup = card("Soup");
+        Pageable secondPage = PageRequest.of(1, RecipeService.PAGE_SIZE, RecipeSort.TITLE.getSort());
 
-        List<Recipe> result = recipeService.getPublicRecipes(category);
+        when(recipeRepository.findPublicCardsByCategory(category, secondPage)).thenReturn(new SliceImpl<>(List.of(soup)));
 
+        Slice<RecipeCard> result = recipeService.getPublicRecipesPage(category, RecipeSort.TITLE, 1);
 
-        assertThat(result).hasSize(2);
-        assertThat(result).contains(publicRecipe1, publicRecipe2);
-        assertThat(result).doesNotContain(privateRecipe);
+        assertThat(result.getContent()).containsExactly(soup);
+        verify(recipeRepository).findPublicCardsByCategory(category, secondPage);
     }
 
 
     @Test
-    public void whenAddToFavorites_thenRecipeAddedToUserFavorites(){
+    public void whenAddToFavorites_thenFavoriteRowInsertedWithoutLoadingCollections(){
         UUID recipeId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
 
         User user = User.builder()
                 .id(userId)
-                .favorites(new HashSet<>())
-                .build();
-
-        Recipe recipe = Recipe.builder()
-                .id(recipeId)
-                .favoriteBy(new HashSet<>())
                 .build();
 
-        when(recipeRepository.findById(recipeId)).thenReturn(Optional.of(recipe));
+        when(recipeRepository.existsById(recipeId)).thenReturn(true);
         recipeService.addToFavorites(user, recipeId);
 
-        assertThat(user.getFavorites()).contains(recipe);
-        assertThat(recipe.getFavoriteBy()).contains(user);
-        verify(recipeRepository).save(recipe);
+        verify(recipeRepository).insertFavorite(userId, recipeId);
+        verify(recipeRepository, never()).save(any());
 
     }
 
-
     @Test
-    public void whenGetUserFavorites_thenReturnSortedFavoritesByCreatedDate(){
-        UUID userId = UUID.randomUUID();
+    public void whenAddToFavoritesForMissingRecipe_thenThrowsRecipeNotFound(){
+        UUID recipeId = UUID.randomUUID();
+        User user = User.builder().id(UUID.randomUUID()).build();
 
-        Recipe oldRecipe = Recipe.builder()
-                .createdOn(LocalDateTime.of(2025, 1, 1, 10, 0))
-                .build();
+        when(recipeRepository.existsById(recipeId)).thenReturn(false);
 
-        Recipe newRecipe = Recipe.builder()
-                .createdOn(LocalDateTime.of(2025, 12, 1, 10, 0))
-                .build();
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.addToFavorites(user, recipeId));
+        verify(recipeRepository, never()).insertFavorite(any(), any());
+    }
 
-        User user = User.builder()
-                .id(userId)
-                .favorites(new HashSet<>(Set.of(oldRecipe, newRecipe)))
-                .build();
 
-        when(userService.getById(userId)).thenReturn(user);
+    @Test
+    public void whenGetUserFavorites_thenReturnFavoriteCardsInRepositoryOrder(){
+        UUID userId = UUID.randomUUID();
 
+        RecipeCard newRecipe = card("New");
+        RecipeCard oldRecipe = card("Old");
 
-        List<Recipe> result = recipeService.getUserFavorites(userId);
+        when(recipeRepository.findFavoriteCards(userId)).thenReturn(List.of(newRecipe, oldRecipe));
 
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0)).isEqualTo(newRecipe);
-        assertThat(result.get(1)).isEqualTo(oldRecipe);
+        List<RecipeCard> result = recipeService.getUserFavorites(userId);
+
+
+        assertThat(result).containsExactly(newRecipe, oldRecipe);
 
     }
 
@@ -418,11 +427,11 @@ public class RecipeServiceUTest {
     @Test
     public void whenRecipeIsInFavorites_thenReturnTrue(){
 
-        Recipe recipe = Recipe.builder().build();
+        Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
 
-        User user = User.builder()
-                .favorites(new HashSet<>(Set.of(recipe)))
-                .build();
+        User user = User.builder().id(UUID.randomUUID()).build();
+
+        when(recipeRepository.existsFavoriteByUserIdAndRecipeId(user.getId(), recipe.getId())).thenReturn(true);
 
         boolean result=recipeService.isFavorite(recipe, user);
 
@@ -433,11 +442,11 @@ public class RecipeServiceUTest {
 
     @Test
     public void whenRecipeIsNotInFavorites_thenReturnFalse(){
-        Recipe recipe = Recipe.builder().build();
+        Recipe recipe = Recipe.builder().id(UUID.randomUUID()).build();
 
-        User user = User.builder()
-                .favorites(new HashSet<>())
-                .build();
+        User user = User.builder().id(UUID.randomUUID()).build();
+
+        when(recipeRepository.existsFavoriteByUserIdAndRecipeId(user.getId(), recipe.getId())).thenReturn(false);
 
         boolean result=recipeService.isFavorite(recipe, user);
 
@@ -447,31 +456,19 @@ public class RecipeServiceUTest {
     }
 
     @Test
-    public void whenRemoveFromFavorites_thenRecipeRemovedFromUserFavorites(){
+    public void whenRemoveFromFavorites_thenFavoriteRowDeleted(){
         UUID recipeId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
 
-
-        Recipe recipe = Recipe.builder()
-                .id(recipeId)
-                .favoriteBy(new HashSet<>())
-                .build();
-
-
         User user = User.builder()
                 .id(userId)
-                .favorites(new HashSet<>(Set.of(recipe)))
                 .build();
 
-
-        recipe.getFavoriteBy().add(user);
-
-        when(recipeRepository.findById(recipeId)).thenReturn(Optional.of(recipe));
+        when(recipeRepository.existsById(recipeId)).thenReturn(true);
         recipeService.removeFromFavorites(user, recipeId);
 
-        assertThat(user.getFavorites()).doesNotContain(recipe);
-        assertThat(recipe.getFavoriteBy()).doesNotContain(user);
-        verify(recipeRepository).save(recipe);
+        verify(recipeRepository).deleteFavorite(userId, recipeId);
+        verify(recipeRepository, never()).save(any());
     }
 
     @Test
@@ -479,40 +476,53 @@ public class RecipeServiceUTest {
 
         User user = User.builder().id(UUID.randomUUID()).build();
 
-        Recipe recipe1 = Recipe.builder().deleted(false).build();
-        Recipe recipe2 = Recipe.builder().deleted(false).build();
-        Recipe recipe3 = Recipe.builder().deleted(false).build();
+        when(recipeRepository.countByAuthorAndDeletedFalse(user)).thenReturn(3L);
 
-        when(recipeRepository.findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user))
-                .thenReturn(Arrays.asList(recipe1, recipe2, recipe3));
 
-
-        int count = recipeService.countUserRecipes(user);
+        long count = recipeService.countUserRecipes(user);
 
 
         assertThat(count).isEqualTo(3);
-        verify(recipeRepository).findByAuthorAndDeletedFalseOrderByCreatedOnDesc(user);
+        verify(recipeRepository).countByAuthorAndDeletedFalse(user);
     }
 
     @Test
     public void whenCountUserFavorites_thenReturnCorrectCount() {
 
         UUID userId = UUID.randomUUID();
-        User user = User.builder().id(userId).build();
 
-        Recipe recipe1 = Recipe.builder().deleted(false).createdOn(LocalDateTime.now()).build();
-        Recipe recipe2 = Recipe.builder().deleted(false).createdOn(LocalDateTime.now()).build();
+        when(recipeRepository.countUserFavorites(userId)).thenReturn(2L);
 
-        user.setFavorites(new HashSet<>(Arrays.asList(recipe1, recipe2)));
 
-        when(userService.getById(userId)).thenReturn(user);
+        long count = recipeService.countUserFavorites(userId);
 
 
-        int count = recipeService.countUserFavorites(userId);
+        assertThat(count).isEqualTo(2);
+        verify(recipeRepository).countUserFavorites(userId);
+    }
 
+    @Test
+    public void whenGetDetailById_andSecondQueryReturnsOtherInstance_thenCategoriesAndTagsAreCopied() {
 
-        assertThat(count).isEqualTo(2);
-        verify(userService).getById(userId);
+        UUID recipeId = UUID.randomUUID();
+        Recipe detail = Recipe.builder().id(recipeId).categories(new HashSet<>()).dietaryTags(new HashSet<>()).build();
+        Category category = Category.builder().name("Dessert").build();
+        Recipe withCategories = Recipe.builder()
+                .id(recipeId)
+                .categories(Set.of(category))
+                .dietaryTags(Set.of(DietaryTag.VEGAN))
+                .build();
+
+        when(recipeRepository.findDetailById(recipeId)).thenReturn(Optional.of(detail));
+        when(recipeRepository.findWithCategoriesAndTagsById(recipeId)).thenReturn(Optional.of(withCategories));
+
+
+        Recipe result = recipeService.getDetailById(recipeId);
+
+
+        assertThat(result).isSameAs(detail);
+        assertThat(result.getCategories()).containsExactly(category);
+        assertThat(result.getDietaryTags()).containsExactly(DietaryTag.VEGAN);
     }
 
     @Test
@@ -528,7 +538,6 @@ public class RecipeServiceUTest {
                 .id(recipeId)
                 .title("Test Recipe")
                 .description("Test description")
-                .ingredients("flour, sugar")
                 .instructions("Mix and bake")
                 .prepTimeMinutes(10)
                 .cookTimeMinutes(20)
@@ -541,12 +550,31 @@ public class RecipeServiceUTest {
                 .author(author)
                 .build();
 
-        when(recipeRepository.findById(recipeId)).thenReturn(Optional.of(recipe));
+        when(recipeRepository.findDetailById(recipeId)).thenReturn(Optional.of(recipe));
 
         byte[] result = recipeService.generateRecipePdf(recipeId);
 
         assertThat(result).isNotNull();
         assertThat(result.length).isGreaterThan(0);
-        verify(recipeRepository).findById(recipeId);
+        verify(recipeRepository).findDetailById(recipeId);
+    }
+
+    private static RecipeCard card(String title) {
+        return new RecipeCard(UUID.randomUUID(), title, null, null, null, null, null, null, null,
+                true, LocalDateTime.now(), LocalDateTime.now(), "author");
+    }
+
+    private static RecipeRepository.CategoryName categoryName(RecipeCard card, String name) {
+        return new RecipeRepository.CategoryName() {
+            @Override
+            public UUID getRecipeId() {
+                return card.getId();
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
     }
 }
@@ -0,0 +1,162 @@
+package app.search;
+
+import app.ingredient.model.Ingredient;
+import app.recipe.model.Recipe;
+import app.recipeingredient.model.RecipeIngredient;
+import app.search.service.RecipeSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecipeSearchIndexUTest {
+
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        recipeSearchIndex = new RecipeSearchIndex();
+    }
+
+    @Test
+    void whenSearchByTitleWord_thenTitleMatchRanksFirst() {
+        Recipe pizza = aRecipe("Tomato Pizza", "Classic pizza", "Bake the dough");
+        Recipe soup = aRecipe("Lentil Soup", "Goes well with pizza", "Simmer slowly");
+
+        recipeSearchIndex.index(soup);
+        recipeSearchIndex.index(pizza);
+
+        List<UUID> result = recipeSearchIndex.search("pizza", 10);
+
+        assertThat(result).containsExactly(pizza.getId(), soup.getId());
+    }
+
+    @Test
+    void whenSearchWithDifferentWordForm_thenStemmedTermMatches() {
+        Recipe recipe = aRecipe("Roasted tomatoes", "Sweet and simple", "Roast in the oven");
+
+        recipeSearchIndex.index(recipe);
+
+        assertThat(recipeSearchIndex.search("tomato", 10)).containsExactly(recipe.getId());
+        assertThat(recipeSearchIndex.search("roasting", 10)).containsExactly(recipe.getId());
+    }
+
+    @Test
+    void whenSearchWithSingularOrPlural_thenBothFormsMatch() {
+        Recipe cookies = aRecipe("Chocolate chip cookies", "Chewy", "Bake until golden");
+        Recipe smoothie = aRecipe("Berry smoothie", "Breakfast in a glass", "Blend until smooth");
+
+        recipeSearchIndex.index(cookies);
+        recipeSearchIndex.index(smoothie);
+
+        assertThat(recipeSearchIndex.search("cookie", 10)).containsExactly(cookies.getId());
+        assertThat(recipeSearchIndex.search("smoothies", 10)).containsExactly(smoothie.getId());
+        assertThat(recipeSearchIndex.search("berries", 10)).containsExactly(smoothie.getId());
+    }
+
+    @Test
+    void whenSearchByIngredientName_thenRecipeIsFound() {
+        Recipe recipe = aRecipe("Weeknight Stir Fry", "Quick dinner", "Fry everything");
+        recipe.getRecipeIngredients().add(anIngredientLine(recipe, "broccoli"));
+
+        recipeSearchIndex.index(recipe);
+
+        assertThat(recipeSearchIndex.search("broccoli", 10)).containsExactly(recipe.getId());
+    }
+
+    @Test
+    void whenIndexedAfterCommit_thenRecipeIsSearchableOnlyOnceCommitted() {
+        Recipe recipe = aRecipe("Pumpkin Soup", "Creamy", "Blend it");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recipeSearchIndex.indexAfterCommit(recipe);
+            assertThat(recipeSearchIndex.search("pumpkin", 10)).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(recipeSearchIndex.search("pumpkin", 10)).containsExactly(recipe.getId());
+    }
+
+    @Test
+    void whenTransactionRollsBack_thenRemovalIsNotApplied() {
+        Recipe recipe = aRecipe("Pumpkin Soup", "Creamy", "Blend it");
+        recipeSearchIndex.index(recipe);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recipeSearchIndex.removeAfterCommit(recipe.getId());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(recipeSearchIndex.search("pumpkin", 10)).containsExactly(recipe.getId());
+    }
+
+    @Test
+    void whenSearchWithPartialLastWord_thenPrefixMatches() {
+        Recipe recipe = aRecipe("Chicken Curry", "Spicy", "Cook the chicken");
+
+        recipeSearchIndex.index(recipe);
+
+        assertThat(recipeSearchIndex.search("chic", 10)).containsExactly(recipe.getId());
+    }
+
+    @Test
+    void whenRecipeRemovedOrMadePrivate_thenNoLongerFound() {
+        Recipe removed = aRecipe("Apple Pie", "Dessert", "Bake");
+        Recipe madePrivate = aRecipe("Apple Crumble", "Dessert", "Bake");
+
+        recipeSearchIndex.index(removed);
+        recipeSearchIndex.index(madePrivate);
+
+        recipeSearchIndex.remove(removed.getId());
+        madePrivate.setPublic(false);
+        recipeSearchIndex.index(madePrivate);
+
+        assertThat(recipeSearchIndex.search("apple", 10)).isEmpty();
+        assertThat(recipeSearchIndex.size()).isZero();
+    }
+
+    @Test
+    void whenRecipeReindexed_thenOldTermsAreDropped() {
+        Recipe recipe = aRecipe("Banana Bread", "Moist", "Bake");
+        recipeSearchIndex.index(recipe);
+
+        recipe.setTitle("Zucchini Bread");
+        recipeSearchIndex.index(recipe);
+
+        assertThat(recipeSearchIndex.search("banana", 10)).isEmpty();
+        assertThat(recipeSearchIndex.search("zucchini", 10)).containsExactly(recipe.getId());
+    }
+
+    private Recipe aRecipe(String title, String description, String instructions) {
+        return Recipe.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .instructions(instructions)
+                .isPublic(true)
+                .deleted(false)
+                .recipeIngredients(new ArrayList<>())
+                .build();
+    }
+
+    private RecipeIngredient anIngredientLine(Recipe recipe, String name) {
+        return RecipeIngredient.builder()
+                .recipe(recipe)
+                .ingredient(Ingredient.builder().id(UUID.randomUUID()).name(name).build())
+                .quantity("1")
+                .unit("piece")
+                .build();
+    }
+}
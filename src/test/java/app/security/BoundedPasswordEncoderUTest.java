@@ -0,0 +1,114 @@
+package app.security;
+
+import app.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedPasswordEncoderUTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void whenEncodeAndMatch_thenDelegateAndRecordHashTime() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        String hash = encoder.encode("123123");
+
+        assertThat(encoder.matches("123123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge()).isNotNull();
+    }
+
+    @Test
+    void whenPoolAndQueueAreFull_thenRefuseInsteadOfWaiting() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        awaitQueued(1);
+
+        assertThrows(AuthenticationServiceException.class, () -> encoder.matches("c", "hash"));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void whenLoginsFillTheQueue_thenEncodeIsRefusedWithBusyException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        encoder = new BoundedPasswordEncoder(slow, 1, 2, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> encoder.matches("c", "hash"));
+        awaitQueued(2);
+
+        PasswordHashingBusyException exception = assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.encode("new-user-password"));
+        assertThat(exception.getMessage()).contains("try again");
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(encoder.encode("new-user-password")).isNotBlank();
+    }
+
+    private void awaitQueued(int tasks) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < tasks
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package app.shoppinglist;
+
+import app.shoppinglist.model.MeasurementUnit;
+import app.shoppinglist.model.Quantity;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class QuantityUTest {
+
+    @Test
+    void whenParsingAmounts_thenDecimalsFractionsAndMixedNumbersSupported() {
+        assertThat(Quantity.parse("2", "g").getAmount()).isEqualTo(2);
+        assertThat(Quantity.parse("3.5", "g").getAmount()).isEqualTo(3.5);
+        assertThat(Quantity.parse("3,5", "g").getAmount()).isEqualTo(3.5);
+        assertThat(Quantity.parse("1/2", "cup").getAmount()).isEqualTo(0.5);
+        assertThat(Quantity.parse("2 1/4", "cup").getAmount()).isEqualTo(2.25);
+    }
+
+    @Test
+    void whenParsingUnits_thenAliasesNormalizedAndUnknownRejected() {
+        assertThat(Quantity.parse("1", "Tbsp.").getUnit()).isEqualTo(MeasurementUnit.TABLESPOON);
+        assertThat(Quantity.parse("1", "grams").getUnit()).isEqualTo(MeasurementUnit.GRAM);
+        assertThat(Quantity.parse("2", null).getUnit()).isNull();
+
+        assertThat(Quantity.parse("1", "bunch")).isNull();
+        assertThat(Quantity.parse("a pinch", "g")).isNull();
+        assertThat(Quantity.parse("1/0", "g")).isNull();
+        assertThat(Quantity.parse(null, "g")).isNull();
+    }
+
+    @Test
+    void whenAddingSameUnit_thenAmountsSummedInThatUnit() {
+        Quantity sum = Quantity.parse("1/2", "cup").plus(Quantity.parse("1 1/4", "cups"));
+
+        assertThat(sum.formatAmount()).isEqualTo("1.75");
+        assertThat(sum.formatUnit()).isEqualTo("cup");
+    }
+
+    @Test
+    void whenAddingMetricUnits_thenShownInLargestWholeUnit() {
+        Quantity kilos = Quantity.parse("750", "g").plus(Quantity.parse("0.5", "kg"));
+        Quantity millis = Quantity.parse("0.2", "l").plus(Quantity.parse("50", "ml"));
+
+        assertThat(kilos.formatAmount()).isEqualTo("1.25");
+        assertThat(kilos.formatUnit()).isEqualTo("kg");
+        assertThat(millis.formatAmount()).isEqualTo("250");
+        assertThat(millis.formatUnit()).isEqualTo("ml");
+    }
+
+    @Test
+    void whenAddingSpoonsAndCups_thenStaysInKitchenUnitsUnlessMetricInvolved() {
+        Quantity spoons = Quantity.parse("3", "tsp").plus(Quantity.parse("1", "tbsp"));
+        Quantity mixed = Quantity.parse("2", "tbsp").plus(Quantity.parse("100", "ml"));
+
+        assertThat(spoons.getAmount()).isCloseTo(2, within(1e-9));
+        assertThat(spoons.getUnit()).isEqualTo(MeasurementUnit.TABLESPOON);
+        assertThat(mixed.formatAmount()).isEqualTo("129.57");
+        assertThat(mixed.getUnit()).isEqualTo(MeasurementUnit.MILLILITER);
+    }
+
+    @Test
+    void whenKindsDiffer_thenNotAddable() {
+        assertThat(Quantity.parse("100", "g").plus(Quantity.parse("100", "ml"))).isNull();
+        assertThat(Quantity.parse("2", "clove").plus(Quantity.parse("2", "piece"))).isNull();
+        assertThat(Quantity.parse("2", null).plus(Quantity.parse("2", "g"))).isNull();
+        assertThat(Quantity.parse("2", null).plus(Quantity.parse("3", null)).formatAmount()).isEqualTo("5");
+    }
+}
@@ -0,0 +1,72 @@
+package app.shoppinglist;
+
+import app.recipe.model.Recipe;
+import app.shoppinglist.model.ShoppingListItem;
+import app.shoppinglist.model.ShoppingListView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShoppingListViewUTest {
+
+    @Test
+    void whenBuiltFromItems_thenGroupsAndStatisticsComputedTogether() {
+        Recipe soup = Recipe.builder().id(UUID.randomUUID()).title("Soup").build();
+        Recipe salad = Recipe.builder().id(UUID.randomUUID()).title("Salad").build();
+
+        ShoppingListItem milk = item("Milk", "Dairy", true, null);
+        ShoppingListItem carrots = item("Carrots", "From Recipe", false, soup);
+        ShoppingListItem onions = item("Onions", "From Recipe", true, soup);
+        ShoppingListItem tomatoes = item("Tomatoes", "From Recipe", false, salad);
+        ShoppingListItem soap = item("Soap", null, false, null);
+
+        ShoppingListView view = ShoppingListView.of(
+                List.of(milk, carrots, onions, tomatoes, soap),
+                item -> item.getCustomCategory() != null ? item.getCustomCategory() : "Uncategorized");
+
+        assertThat(view.getItems()).containsExactly(milk, carrots, onions, tomatoes, soap);
+        assertThat(view.getCategorizedItems()).containsOnlyKeys("Dairy", "From Recipe", "Uncategorized");
+        assertThat(view.getCategorizedItems().get("From Recipe")).containsExactly(carrots, onions, tomatoes);
+        assertThat(view.getTotalItems()).isEqualTo(5);
+        assertThat(view.getCompletedItems()).isEqualTo(2);
+        assertThat(view.getRecipeCount()).isEqualTo(2);
+        assertThat(view.getCompletionPercentage()).isEqualTo(40);
+    }
+
+    @Test
+    void whenItemConsolidatesSeveralRecipes_thenEveryRecipeIsCounted() {
+        Recipe soup = Recipe.builder().id(UUID.randomUUID()).title("Soup").build();
+        Recipe stew = Recipe.builder().id(UUID.randomUUID()).title("Stew").build();
+
+        ShoppingListItem onions = item("Onions", "From Recipe", false, soup);
+        onions.setSourceRecipes(Set.of(soup, stew));
+
+        ShoppingListView view = ShoppingListView.of(List.of(onions), item -> item.getCustomCategory());
+
+        assertThat(view.getRecipeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenNoItems_thenEmptyViewWithZeroPercentage() {
+        ShoppingListView view = ShoppingListView.of(List.of(), item -> "Uncategorized");
+
+        assertThat(view.getItems()).isEmpty();
+        assertThat(view.getCategorizedItems()).isEmpty();
+        assertThat(view.getTotalItems()).isZero();
+        assertThat(view.getCompletionPercentage()).isZero();
+    }
+
+    private static ShoppingListItem item(String name, String category, boolean completed, Recipe recipe) {
+        return ShoppingListItem.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .customCategory(category)
+                .completed(completed)
+                .recipe(recipe)
+                .build();
+    }
+}
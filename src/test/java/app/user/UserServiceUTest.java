@@ -3,8 +3,11 @@ package app.user;
 import app.exception.LastAdminException;
 import app.exception.UserNotFoundException;
 import app.exception.UsernameAlreadyExistException;
+import app.security.AuthenticationMethadata;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.model.UserSort;
 import app.user.repository.UserRepository;
 import app.user.service.UserService;
 import app.web.dto.RegisterRequest;
@@ -14,11 +17,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,6 +44,9 @@ public class UserServiceUTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -152,13 +165,44 @@ public class UserServiceUTest {
     }
 
     @Test
-    void whenGetUserCount_thenReturnCount() {
-        when(userRepository.countByRole(UserRole.USER)).thenReturn(5L);
+    void whenGetUserCountsByRole_thenReturnEveryRoleFromOneGroupedQuery() {
+        UserRepository.RoleCount admins = mock(UserRepository.RoleCount.class);
+        when(admins.getRole()).thenReturn(UserRole.ADMIN);
+        when(admins.getUsers()).thenReturn(2L);
+
+        when(userRepository.countUsersByRole()).thenReturn(List.of(admins));
+
+        Map<UserRole, Long> result = userService.getUserCountsByRole();
+
+        assertEquals(2L, result.get(UserRole.ADMIN));
+        assertEquals(0L, result.get(UserRole.USER));
+        verify(userRepository, never()).count();
+    }
+
+
+
+    @Test
+    void whenGetCurrentUser_thenReturnSnapshotOfTheStoredUser() {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .username("emi")
+                .firstName("Emi")
+                .profilePicture("www.picture.com")
+                .role(UserRole.ADMIN)
+                .isActive(true)
+                .build();
 
-        long result = userService.getUserCount();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        CurrentUser result = userService.getCurrentUser(userId);
 
-        assertEquals(5L, result);
-        verify(userRepository, times(1)).countByRole(UserRole.USER);
+        assertEquals(userId, result.getId());
+        assertEquals("emi", result.getUsername());
+        assertEquals("Emi", result.getFirstName());
+        assertEquals("www.picture.com", result.getProfilePicture());
+        assertEquals(UserRole.ADMIN, result.getRole());
+        assertTrue(result.isActive());
     }
 
 
@@ -177,6 +221,29 @@ public class UserServiceUTest {
     }
 
 
+    @Test
+    void whenSearchUsers_thenPassEscapedPrefixFiltersAndSortToRepository() {
+        Slice<User> page = new SliceImpl<>(List.of(new User()));
+        when(userRepository.search(eq("emi\\_%"), eq(UserRole.USER), eq(true), any(Pageable.class))).thenReturn(page);
+
+        Slice<User> result = userService.searchUsers(" emi_ ", UserRole.USER, true, UserSort.USERNAME, 2);
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(userRepository).search(eq("emi\\_%"), eq(UserRole.USER), eq(true),
+                eq(PageRequest.of(2, UserService.PAGE_SIZE, UserSort.USERNAME.getSort())));
+    }
+
+
+    @Test
+    void whenSearchUsers_withBlankQuery_thenDoNotFilterByName() {
+        when(userRepository.search(isNull(), isNull(), isNull(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        userService.searchUsers("  ", null, null, UserSort.NEWEST, 0);
+
+        verify(userRepository).search(isNull(), isNull(), isNull(), any(Pageable.class));
+    }
+
+
     @Test
     void givenExistingUsername_whenRegisterUser_thenThrowException() {
 
@@ -235,27 +302,6 @@ public class UserServiceUTest {
     }
 
 
-    @Test
-    void whenGetAllUsers_thenReturnUserList() {
-
-        User user1 = new User();
-        User user2 = new User();
-        User user3 = new User();
-        List<User> users = List.of(user1, user2, user3);
-
-        when(userRepository.findAll()).thenReturn(users);
-
-
-        List<User> result = userService.getAllUsers();
-
-
-        assertNotNull(result);
-        assertEquals(3, result.size());
-        verify(userRepository, times(1)).findAll();
-    }
-
-
-
     @Test
     void loadUserByUsername_whenUserExists_shouldReturnUserDetails() {
         String username = "Emi123";
@@ -276,6 +322,51 @@ public class UserServiceUTest {
         verify(userRepository, times(1)).findByUsername(username);
     }
 
+    @Test
+    void whenToggleUserActiveStatus_thenBlockUser_andEvictCachedUserDetails() {
+        UUID userId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .username("Emi123")
+                .role(UserRole.USER)
+                .isActive(true)
+                .build();
+        Cache userDetails = mock(Cache.class);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(cacheManager.getCache("userDetails")).thenReturn(userDetails);
+
+        userService.toggleUserActiveStatus(userId);
+
+        assertFalse(user.isActive());
+        verify(userRepository).save(user);
+        verify(userDetails).evict("Emi123");
+    }
+
+    @Test
+    void whenUpdatePassword_thenStoreUpgradedHash_andEvictCachedUserDetails() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("Emi123")
+                .password("$2a$10$legacy")
+                .role(UserRole.USER)
+                .isActive(true)
+                .build();
+        Cache userDetails = mock(Cache.class);
+        AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
+                user.getPassword(), user.getRole(), user.isActive());
+
+        when(userRepository.findByUsername("Emi123")).thenReturn(Optional.of(user));
+        when(cacheManager.getCache("userDetails")).thenReturn(userDetails);
+
+        UserDetails result = userService.updatePassword(principal, "{bcrypt}$2a$12$upgraded");
+
+        assertThat(result.getPassword()).isEqualTo("{bcrypt}$2a$12$upgraded");
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}$2a$12$upgraded");
+        verify(userRepository).save(user);
+        verify(userDetails).evict("Emi123");
+    }
+
     @Test
     void givenMissingUserFromDatabase_whenEditUserDetails_thenExceptionIsThrown() {
 
@@ -2,12 +2,19 @@ package app.web;
 
 import app.exception.LastAdminException;
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
+import app.user.model.UserSort;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +24,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -27,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AdminController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 public class AdminControllerApiTest {
 
@@ -39,13 +48,12 @@ public class AdminControllerApiTest {
     @Test
     void getAdminDashboard_shouldReturn200AndAdminView() throws Exception {
         User adminUser = aRandomAdminUser();
-        List<User> allUsers = List.of();
+        Slice<User> users = new SliceImpl<>(List.of(adminUser));
 
-        when(userService.getById(adminUser.getId())).thenReturn(adminUser);
-        when(userService.getAllUsers()).thenReturn(allUsers);
-        when(userService.getTotalUsers()).thenReturn(10L);
-        when(userService.getAdminCount()).thenReturn(2L);
-        when(userService.getUserCount()).thenReturn(8L);
+        when(userService.getCurrentUser(adminUser.getId())).thenReturn(CurrentUser.from(adminUser));
+        when(userService.getReference(adminUser.getId())).thenReturn(adminUser);
+        when(userService.searchUsers(null, null, null, UserSort.NEWEST, 0)).thenReturn(users);
+        when(userService.getUserCountsByRole()).thenReturn(Map.of(UserRole.ADMIN, 2L, UserRole.USER, 8L));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(adminUser.getId(), adminUser.getUsername(),
                 adminUser.getPassword(), adminUser.getRole(), adminUser.isActive());
@@ -56,13 +64,43 @@ public class AdminControllerApiTest {
         mockMvc.perform(httpRequest)
                 .andExpect(status().isOk())
                 .andExpect(view().name("admin"))
-                .andExpect(model().attributeExists("user", "users", "totalUsers", "adminCount", "userCount"));
+                .andExpect(model().attributeExists("user", "users", "totalUsers", "adminCount", "userCount"))
+                .andExpect(model().attribute("totalUsers", 10L));
 
-        verify(userService, times(1)).getById(adminUser.getId());
-        verify(userService, times(1)).getAllUsers();
-        verify(userService, times(1)).getTotalUsers();
-        verify(userService, times(1)).getAdminCount();
-        verify(userService, times(1)).getUserCount();
+        verify(userService, times(1)).getCurrentUser(adminUser.getId());
+        verify(userService, times(1)).searchUsers(null, null, null, UserSort.NEWEST, 0);
+        verify(userService, times(1)).getUserCountsByRole();
+    }
+
+
+    @Test
+    void getAdminDashboard_withFilters_shouldSearchWithThemAndLinkTheNextPage() throws Exception {
+        User adminUser = aRandomAdminUser();
+        Slice<User> users = new SliceImpl<>(List.of(aRandomUser()), PageRequest.of(1, UserService.PAGE_SIZE), true);
+
+        when(userService.getCurrentUser(adminUser.getId())).thenReturn(CurrentUser.from(adminUser));
+        when(userService.getReference(adminUser.getId())).thenReturn(adminUser);
+        when(userService.searchUsers("emi", UserRole.USER, false, UserSort.USERNAME, 1)).thenReturn(users);
+        when(userService.getUserCountsByRole()).thenReturn(Map.of(UserRole.ADMIN, 1L, UserRole.USER, 1L));
+
+        AuthenticationMethadata principal = new AuthenticationMethadata(adminUser.getId(), adminUser.getUsername(),
+                adminUser.getPassword(), adminUser.getRole(), adminUser.isActive());
+
+        MockHttpServletRequestBuilder httpRequest = get("/admin")
+                .param("q", "emi")
+                .param("role", "USER")
+                .param("active", "false")
+                .param("sort", "USERNAME")
+                .param("page", "1")
+                .with(user(principal));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(view().name("admin"))
+                .andExpect(model().attribute("nextPage", 2))
+                .andExpect(model().attribute("previousPage", 0));
+
+        verify(userService, times(1)).searchUsers("emi", UserRole.USER, false, UserSort.USERNAME, 1);
     }
 
 
@@ -8,15 +8,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import app.category.model.Category;
 import app.category.service.CategoryService;
 import app.exception.CategoryNotFoundException;
-import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
+import app.recipe.model.RecipeSort;
 import app.recipe.service.RecipeService;
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @WebMvcTest(CategoryController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 public class CategoryControllerApiTest {
 
@@ -45,7 +52,8 @@ public class CategoryControllerApiTest {
         List<Category> categories = List.of(createCategory("Desserts"));
         Map<String, Long> categoryCounts = Map.of("Desserts", 3L);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.getAllCategories()).thenReturn(categories);
         when(categoryService.getCategoryRecipeCounts()).thenReturn(categoryCounts);
 
@@ -60,7 +68,7 @@ public class CategoryControllerApiTest {
                 .andExpect(view().name("categories"))
                 .andExpect(model().attributeExists("categories", "categoryCounts", "user"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(categoryService, times(1)).getAllCategories();
         verify(categoryService, times(1)).getCategoryRecipeCounts();
     }
@@ -69,14 +77,16 @@ public class CategoryControllerApiTest {
     void getCategoryRecipes_shouldReturn200AndCategoryDetailView() throws Exception {
         User user = aRandomUser();
         Category category = createCategory("Desserts");
-        List<Recipe> publicRecipes = List.of(
-                createRecipe("Cake", user, category),
-                createRecipe("Cookies", user, category)
+        List<RecipeCard> publicRecipes = List.of(
+                createRecipeCard("Cake", user, category),
+                createRecipeCard("Cookies", user, category)
         );
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.findByName("Desserts")).thenReturn(category);
-        when(recipeService.getPublicRecipes(category)).thenReturn(publicRecipes);
+        when(recipeService.getPublicRecipesPage(category, null)).thenReturn(new SliceImpl<>(publicRecipes));
+        when(recipeService.countPublicRecipes(category)).thenReturn(2L);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
@@ -88,18 +98,49 @@ public class CategoryControllerApiTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("category-detail"))
                 .andExpect(model().attributeExists("category", "recipes", "recipeCount", "user"))
-                .andExpect(model().attribute("recipeCount", 2));
+                .andExpect(model().attribute("recipeCount", 2L));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(categoryService, times(1)).findByName("Desserts");
-        verify(recipeService, times(1)).getPublicRecipes(category);
+        verify(recipeService, times(1)).getPublicRecipesPage(category, null);
+    }
+
+    @Test
+    void getCategoryRecipes_withSort_shouldPageByNumberWithThatSort() throws Exception {
+        User user = aRandomUser();
+        Category category = createCategory("Desserts");
+        List<RecipeCard> firstPage = List.of(createRecipeCard("Cake", user, category));
+
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
+        when(categoryService.findByName("Desserts")).thenReturn(category);
+        when(recipeService.getPublicRecipesPage(category, RecipeSort.TITLE, 0))
+                .thenReturn(new SliceImpl<>(firstPage, PageRequest.of(0, 1), true));
+        when(recipeService.countPublicRecipes(category)).thenReturn(2L);
+
+        AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
+                user.getPassword(), user.getRole(), user.isActive());
+
+        MockHttpServletRequestBuilder httpRequest = get("/categories/Desserts")
+                .param("sort", "TITLE")
+                .with(user(principal));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(view().name("category-detail"))
+                .andExpect(model().attribute("sort", RecipeSort.TITLE))
+                .andExpect(model().attribute("nextPage", 1));
+
+        verify(recipeService, times(1)).getPublicRecipesPage(category, RecipeSort.TITLE, 0);
+        verify(recipeService, never()).getPublicRecipesPage(any(Category.class), any());
     }
 
     @Test
     void getCategoryRecipes_shouldReturn404_whenCategoryNotFound() throws Exception {
         User user = aRandomUser();
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.findByName("NonExistent"))
                 .thenThrow(new CategoryNotFoundException("Category not found"));
 
@@ -141,19 +182,10 @@ public class CategoryControllerApiTest {
         return Category.builder().name(name).build();
     }
 
-    private Recipe createRecipe(String title, User author, Category category) {
-        return Recipe.builder()
-                .id(UUID.randomUUID())
-                .title(title)
-                .instructions("Test instructions")
-                .prepTimeMinutes(10)
-                .cookTimeMinutes(20)
-                .author(author)
-                .categories(Set.of(category))
-                .createdOn(LocalDateTime.now())
-                .updatedOn(LocalDateTime.now())
-                .isPublic(true)
-                .deleted(false)
-                .build();
+    private RecipeCard createRecipeCard(String title, User author, Category category) {
+        RecipeCard card = new RecipeCard(UUID.randomUUID(), title, "Test description", null, 10, 20, 4,
+                null, null, true, LocalDateTime.now(), LocalDateTime.now(), author.getUsername());
+        card.getCategories().add(category.getName());
+        return card;
     }
 }
\ No newline at end of file
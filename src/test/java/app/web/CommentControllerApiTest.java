@@ -6,12 +6,16 @@ import app.exception.UnauthorizedAccessException;
 import app.recipe.model.Recipe;
 import app.recipe.service.RecipeService;
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CommentController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 public class CommentControllerApiTest {
 
@@ -52,7 +57,8 @@ public class CommentControllerApiTest {
         User user = aRandomUser();
         UUID recipeId = UUID.randomUUID();
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
@@ -67,7 +73,7 @@ public class CommentControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/recipes/" + recipeId + "#comments"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(commentService, times(1)).createComment(any(), any(), any());
     }
 
@@ -76,16 +82,17 @@ public class CommentControllerApiTest {
         User user = aRandomUser();
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
+        recipe.setRatingSum(9);
+        recipe.setRatingCount(2);
         UUID recipeId = recipe.getId();
 
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(recipeService.getById(recipeId)).thenReturn(recipe);
         when(recipeService.isAuthor(recipe, user)).thenReturn(true);
         when(recipeService.isFavorite(recipe, user)).thenReturn(false);
-        when(commentService.getAverageRatingForRecipe(recipeId)).thenReturn(4.5);
-        when(commentService.getTotalRatingsForRecipe(recipeId)).thenReturn(10);
-        when(commentService.getCommentsByRecipe(recipeId)).thenReturn(new ArrayList<>());
+        when(commentService.getCommentsPage(recipeId, null)).thenReturn(new SliceImpl<>(new ArrayList<>()));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -111,6 +118,30 @@ public class CommentControllerApiTest {
                 .andExpect(model().attributeExists("comments"));
     }
 
+    @Test
+    void getCommentsPage_shouldReturnCommentFragment() throws Exception {
+        User user = aRandomUser();
+        UUID recipeId = UUID.randomUUID();
+
+        when(commentService.getCommentsPage(eq(recipeId), any())).thenReturn(new SliceImpl<>(new ArrayList<>()));
+
+        AuthenticationMethadata principal = new AuthenticationMethadata(
+                user.getId(), user.getUsername(),
+                user.getPassword(), user.getRole(), user.isActive());
+
+        MockHttpServletRequestBuilder httpRequest = get("/comments/recipe/" + recipeId)
+                .param("after", "2025-05-15T10:00_" + UUID.randomUUID())
+                .with(user(principal));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(view().name("fragments/comments :: comment-page"))
+                .andExpect(model().attribute("recipeId", recipeId))
+                .andExpect(model().attributeExists("comments"));
+
+        verify(commentService, times(1)).getCommentsPage(eq(recipeId), notNull());
+    }
+
      @Test
      void deleteComment_shouldRedirectToRecipe()  throws Exception {
          User user = aRandomUser();
@@ -118,7 +149,8 @@ public class CommentControllerApiTest {
          Recipe recipe = createRecipe("Choco cake", user, category);
          Comment comment=createComment("text", 5, user, recipe);
 
-         when(userService.getById(user.getId())).thenReturn(user);
+         when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+         when(userService.getReference(user.getId())).thenReturn(user);
          when(commentService.getById(comment.getId())).thenReturn(comment);
 
 
@@ -134,7 +166,7 @@ public class CommentControllerApiTest {
                  .andExpect(redirectedUrl("/recipes/" + recipe.getId() + "#comments"));
 
          verify(commentService, times(1)).getById(comment.getId());
-         verify(userService, times(1)).getById(user.getId());
+         verify(userService, times(1)).getReference(user.getId());
          verify(commentService, times(1)).deleteComment(comment.getId(), user);
 
 
@@ -148,7 +180,8 @@ public class CommentControllerApiTest {
         Recipe recipe = createRecipe("Choco cake", user, category);
         Comment comment = createComment("text", 5, user, recipe);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(commentService.getCommentWithAuthorCheck(comment.getId(), user)).thenReturn(comment);  // ← ТОЗИ РЕД!
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -166,7 +199,7 @@ public class CommentControllerApiTest {
                 .andExpect(model().attributeExists("commentEditRequest"));
 
         verify(commentService, times(1)).getCommentWithAuthorCheck(comment.getId(), user);  // ← ТОЗИ РЕД!
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
     }
 
 
@@ -178,7 +211,8 @@ public class CommentControllerApiTest {
         Recipe recipe = createRecipe("Choco cake", user, category);
         Comment comment = createComment("text", 5, differentUser, recipe);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(commentService.getCommentWithAuthorCheck(comment.getId(), user))
                 .thenThrow(new UnauthorizedAccessException("You can only modify your own comments."));
 
@@ -193,7 +227,7 @@ public class CommentControllerApiTest {
                 .andExpect(status().isForbidden());
 
         verify(commentService, times(1)).getCommentWithAuthorCheck(comment.getId(), user);
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
     }
     @Test
     void updateComment_withValidData_shouldRedirectToRecipe() throws Exception {
@@ -202,7 +236,8 @@ public class CommentControllerApiTest {
         Recipe recipe = createRecipe("Choco cake", user, category);
         Comment comment = createComment("text", 5, user, recipe);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(commentService.getById(comment.getId())).thenReturn(comment);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -221,7 +256,7 @@ public class CommentControllerApiTest {
 
 
         verify(commentService, times(1)).getById(comment.getId());
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(commentService, times(1)).updateComment(any(), any(), any());
 
     }
@@ -233,7 +268,8 @@ public class CommentControllerApiTest {
         Recipe recipe = createRecipe("Choco cake", user, category);
         Comment comment = createComment("text", 5, user, recipe);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(commentService.getById(comment.getId())).thenReturn(comment);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -255,7 +291,7 @@ public class CommentControllerApiTest {
 
 
         verify(commentService, times(1)).getById(comment.getId());
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(commentService, never()).updateComment(any(), any(), any());
 
 
@@ -299,6 +335,8 @@ public class CommentControllerApiTest {
                 .cookTimeMinutes(20)
                 .author(author)
                 .categories(Set.of(category))
+                .dietaryTags(new HashSet<>())
+                .recipeIngredients(new ArrayList<>())
                 .createdOn(LocalDateTime.now())
                 .updatedOn(LocalDateTime.now())
                 .isPublic(true)
@@ -7,15 +7,19 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import app.exception.PasswordHashingBusyException;
 import app.exception.UsernameAlreadyExistException;
-import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -26,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @WebMvcTest(IndexController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 public class IndexControllerApiTest {
 
@@ -123,12 +128,13 @@ public class IndexControllerApiTest {
     @Test
     void getHomePage_shouldReturnHomeView_andStatusCodeIs200() throws Exception {
         User user = aRandomUser();
-        List<Recipe> recentRecipes = List.of();
+        List<RecipeCard> recentRecipes = List.of();
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(recipeService.getRecipesByUser(user, 3)).thenReturn(recentRecipes);
-        when(recipeService.countUserRecipes(user)).thenReturn(0);
-        when(recipeService.countUserFavorites(user.getId())).thenReturn(0);
+        when(recipeService.countUserRecipes(user)).thenReturn(0L);
+        when(recipeService.countUserFavorites(user.getId())).thenReturn(0L);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
@@ -144,7 +150,7 @@ public class IndexControllerApiTest {
                 .andExpect(model().attributeExists("myRecipesCount"))
                 .andExpect(model().attributeExists("favoritesCount"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(recipeService, times(1)).getRecipesByUser(user, 3);
         verify(recipeService, times(1)).countUserRecipes(user);
         verify(recipeService, times(1)).countUserFavorites(user.getId());
@@ -154,7 +160,7 @@ public class IndexControllerApiTest {
     void getHomePage_somethingWentWrongInTheServiceLayer_shouldReturnInternalServiceErrorView() throws Exception {
         UUID userId = UUID.randomUUID();
 
-        when(userService.getById(userId)).thenThrow(new RuntimeException("Database error"));
+        when(userService.getCurrentUser(userId)).thenThrow(new RuntimeException("Database error"));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 userId, "testuser", "password", UserRole.USER, true);
@@ -164,7 +170,7 @@ public class IndexControllerApiTest {
                 .andExpect(view().name("internal-server-error"))
                 .andExpect(model().attribute("errorMessage", "RuntimeException"));
 
-        verify(userService, times(1)).getById(userId);
+        verify(userService, times(1)).getCurrentUser(userId);
         verify(recipeService, never()).getRecipesByUser(any(), anyInt());
     }
 
@@ -192,6 +198,28 @@ public class IndexControllerApiTest {
 
 
 
+        @Test
+        void postRequestToRegisterEndpointWhenPasswordHashingIsBusy_thenRedirectToRegisterWithTryAgainMessage() throws Exception {
+
+            when(userService.register(any())).thenThrow(new PasswordHashingBusyException("Please try again in a moment.", null));
+
+            MockHttpServletRequestBuilder httpRequest= post("/register")
+                    .formField("username", "Emi123")
+                    .formField("password", "123456")
+                    .formField("email", "test@test.com")
+                    .with(csrf());
+
+
+
+            mockMvc.perform(httpRequest)
+                    .andExpect(status().is3xxRedirection())
+                    .andExpect(redirectedUrl("/register"))
+                    .andExpect(flash().attribute("registrationBusyMessage", "Please try again in a moment."));
+            verify(userService, times(1)).register(any());
+        }
+
+
+
     public static User aRandomUser() {
 
 
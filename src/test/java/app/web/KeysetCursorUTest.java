@@ -0,0 +1,70 @@
+package app.web;
+
+import app.comment.model.Comment;
+import app.recipe.model.Recipe;
+import app.web.dto.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeysetCursorUTest {
+
+    @Test
+    void whenEncodeThenDecode_thenSamePositionIsRestored() {
+        LocalDateTime createdOn = LocalDateTime.of(2025, 5, 15, 10, 30, 12, 123_000_000);
+        UUID id = UUID.randomUUID();
+
+        KeysetCursor result = KeysetCursor.decode(new KeysetCursor(createdOn, id).encode());
+
+        assertThat(result.getCreatedOn()).isEqualTo(createdOn);
+        assertThat(result.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void whenDecodeMissingOrMalformedValue_thenReturnNull() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("not-a-cursor")).isNull();
+        assertThat(KeysetCursor.decode("2025-13-40T99:00_" + UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void whenRecipeSliceHasNext_thenNextCursorPointsAfterLastRecipe() {
+        Recipe first = recipe(LocalDateTime.now());
+        Recipe last = recipe(LocalDateTime.now().minusDays(1));
+
+        String next = KeysetCursor.nextOf(new SliceImpl<>(List.of(first, last), PageRequest.of(0, 2), true),
+                Recipe::getCreatedOn, Recipe::getId);
+
+        assertThat(next).isEqualTo(new KeysetCursor(last.getCreatedOn(), last.getId()).encode());
+    }
+
+    @Test
+    void whenCommentSliceHasNext_thenNextCursorPointsAfterLastComment() {
+        Comment first = Comment.builder().id(UUID.randomUUID()).createdOn(LocalDateTime.now()).build();
+        Comment last = Comment.builder().id(UUID.randomUUID()).createdOn(LocalDateTime.now().minusDays(1)).build();
+
+        String next = KeysetCursor.nextOf(new SliceImpl<>(List.of(first, last), PageRequest.of(0, 2), true),
+                Comment::getCreatedOn, Comment::getId);
+
+        assertThat(next).isEqualTo(new KeysetCursor(last.getCreatedOn(), last.getId()).encode());
+    }
+
+    @Test
+    void whenSliceIsLast_thenNoNextCursor() {
+        Recipe recipe = recipe(LocalDateTime.now());
+
+        assertThat(KeysetCursor.nextOf(new SliceImpl<>(List.of(recipe), PageRequest.of(0, 2), false),
+                Recipe::getCreatedOn, Recipe::getId)).isNull();
+    }
+
+    private static Recipe recipe(LocalDateTime createdOn) {
+        return Recipe.builder().id(UUID.randomUUID()).title("Recipe").createdOn(createdOn).build();
+    }
+}
@@ -5,14 +5,19 @@ import app.category.service.CategoryService;
 import app.comment.service.CommentService;
 import app.exception.UnauthorizedAccessException;
 import app.recipe.model.Recipe;
+import app.recipe.model.RecipeCard;
 import app.recipe.service.RecipeService;
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,6 +33,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RecipeController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 
 public class RecipeControllerApiTest {
@@ -51,7 +57,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
 
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.getAllCategories()).thenReturn(List.of(category));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
@@ -69,7 +76,7 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("recipeCreateRequest"));
 
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(categoryService, times(1)).getAllCategories();
     }
 
@@ -78,7 +85,8 @@ public class RecipeControllerApiTest {
         User user = aRandomUser();
         Category category = createCategory("Dessert");
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.getAllCategories()).thenReturn(List.of(category));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -99,7 +107,7 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("categories"));
 
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(categoryService, times(1)).getAllCategories();
         verify(recipeService, never()).createRecipe(any(), any());
 
@@ -112,7 +120,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(recipeService.createRecipe(any(), eq(user))).thenReturn(recipe);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -135,7 +144,7 @@ public class RecipeControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/recipes/" + recipe.getId()));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(recipeService, times(1)).createRecipe(any(), any());
     }
 
@@ -145,14 +154,15 @@ public class RecipeControllerApiTest {
         User user = aRandomUser();
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
+        recipe.setRatingSum(60);
+        recipe.setRatingCount(10);
 
-        when(userService.getById(user.getId())).thenReturn(user);
-        when(recipeService.getById(recipe.getId())).thenReturn(recipe);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
+        when(recipeService.getDetailById(recipe.getId())).thenReturn(recipe);
         when(recipeService.isAuthor(recipe, user)).thenReturn(true);
         when(recipeService.isFavorite(recipe, user)).thenReturn(true);
-        when(commentService.getAverageRatingForRecipe(recipe.getId())).thenReturn(6.0);
-        when(commentService.getTotalRatingsForRecipe(recipe.getId())).thenReturn(10);
-        when(commentService.getCommentsByRecipe(recipe.getId())).thenReturn(new ArrayList<>());
+        when(commentService.getCommentsPage(recipe.getId(), null)).thenReturn(new SliceImpl<>(new ArrayList<>()));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -169,27 +179,26 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("isAuthor"))
                 .andExpect(model().attributeExists("comments"))
                 .andExpect(model().attributeExists("isFavorite"))
-                .andExpect(model().attributeExists("averageRating"))
-                .andExpect(model().attributeExists("totalRatings"))
+                .andExpect(model().attribute("averageRating", 6.0))
+                .andExpect(model().attribute("totalRatings", 10))
                 .andExpect(model().attributeExists("commentCreateRequest"));
 
-        verify(userService, times(1)).getById(user.getId());
-        verify(recipeService, times(1)).getById(recipe.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
+        verify(recipeService, times(1)).getDetailById(recipe.getId());
         verify(recipeService, times(1)).isAuthor(recipe, user);
         verify(recipeService, times(1)).isFavorite(recipe, user);
-        verify(commentService, times(1)).getAverageRatingForRecipe(recipe.getId());
-        verify(commentService, times(1)).getTotalRatingsForRecipe(recipe.getId());
-        verify(commentService, times(1)).getCommentsByRecipe(recipe.getId());
+        verify(commentService, times(1)).getCommentsPage(recipe.getId(), null);
     }
 
     @Test
     void getMyRecipes_shouldReturnUserRecipesList() throws Exception {
         User user = aRandomUser();
         Category category = createCategory("Dessert");
-        Recipe recipe = createRecipe("Choco cake", user, category);
+        RecipeCard recipe = createRecipeCard("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
-        when(recipeService.getRecipesByUser(user, null)).thenReturn(List.of(recipe));
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
+        when(recipeService.getRecipesByUserPage(user, null)).thenReturn(new SliceImpl<>(List.of(recipe)));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -204,8 +213,8 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("recipes"));
 
-        verify(userService, times(1)).getById(user.getId());
-        verify(recipeService, times(1)).getRecipesByUser(user, null);
+        verify(userService, times(1)).getCurrentUser(user.getId());
+        verify(recipeService, times(1)).getRecipesByUserPage(user, null);
     }
 
 
@@ -216,8 +225,9 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
-        when(recipeService.getById(recipe.getId())).thenReturn(recipe);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
+        when(recipeService.getDetailById(recipe.getId())).thenReturn(recipe);
         when(categoryService.getAllCategories()).thenReturn(List.of(category));
 
 
@@ -237,8 +247,8 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("recipeUpdateRequest"));
 
 
-        verify(userService, times(1)).getById(user.getId());
-        verify(recipeService, times(1)).getById(recipe.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
+        verify(recipeService, times(1)).getDetailById(recipe.getId());
         verify(categoryService, times(1)).getAllCategories();
 
     }
@@ -250,7 +260,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(categoryService.getAllCategories()).thenReturn(List.of(category));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -273,7 +284,7 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("recipeUpdateRequest"));
 
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(categoryService, times(1)).getAllCategories();
         verify(recipeService, never()).updateRecipe(any(), any(), any());
 
@@ -286,7 +297,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco choco", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(recipeService.updateRecipe(eq(recipe.getId()), any(), eq(user))).thenReturn(recipe);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -309,7 +321,7 @@ public class RecipeControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/recipes/" + recipe.getId()));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(recipeService, times(1)).updateRecipe(any(), any(), any());
     }
     @Test
@@ -318,7 +330,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -333,7 +346,7 @@ public class RecipeControllerApiTest {
                 .andExpect(redirectedUrl("/recipes/mine"));
 
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getReference(user.getId());
         verify(recipeService, times(1)).deleteRecipe(recipe.getId(), user);
 
     }
@@ -343,9 +356,10 @@ public class RecipeControllerApiTest {
     void getMyFavorites_shouldReturnUserFavoritesList() throws Exception {
         User user = aRandomUser();
         Category category = createCategory("Dessert");
-        Recipe recipe = createRecipe("Choco cake", user, category);
+        RecipeCard recipe = createRecipeCard("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
         when(recipeService.getUserFavorites(user.getId())).thenReturn(List.of(recipe));
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
@@ -361,7 +375,7 @@ public class RecipeControllerApiTest {
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("favorites"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
         verify(recipeService, times(1)).getUserFavorites(user.getId());
     }
 
@@ -371,7 +385,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -386,7 +401,7 @@ public class RecipeControllerApiTest {
                 .andExpect(redirectedUrl("/recipes/" + recipe.getId() +"?success=added"));
 
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getReference(user.getId());
         verify(recipeService, times(1)).addToFavorites(user,recipe.getId());
 
     }
@@ -397,7 +412,8 @@ public class RecipeControllerApiTest {
         Category category = createCategory("Dessert");
         Recipe recipe = createRecipe("Choco cake", user, category);
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(
                 user.getId(), user.getUsername(),
@@ -411,7 +427,7 @@ public class RecipeControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/recipes/" + recipe.getId() + "?success=removed"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getReference(user.getId());
         verify(recipeService, times(1)).removeFromFavorites(user, recipe.getId());
     }
 
@@ -449,7 +465,8 @@ public class RecipeControllerApiTest {
         User otherUser = aRandomUser();
         Recipe recipe = createRecipe("Choco cake", author, createCategory("Dessert"));
 
-        when(userService.getById(otherUser.getId())).thenReturn(otherUser);
+        when(userService.getCurrentUser(otherUser.getId())).thenReturn(CurrentUser.from(otherUser));
+        when(userService.getReference(otherUser.getId())).thenReturn(otherUser);
         doThrow(new UnauthorizedAccessException("You can only delete your own recipes."))
                 .when(recipeService).deleteRecipe(recipe.getId(), otherUser);
 
@@ -494,6 +511,8 @@ public class RecipeControllerApiTest {
                 .cookTimeMinutes(20)
                 .author(author)
                 .categories(Set.of(category))
+                .dietaryTags(new HashSet<>())
+                .recipeIngredients(new ArrayList<>())
                 .createdOn(LocalDateTime.now())
                 .updatedOn(LocalDateTime.now())
                 .isPublic(true)
@@ -502,6 +521,14 @@ public class RecipeControllerApiTest {
     }
 
 
+    public static RecipeCard createRecipeCard(String title, User author, Category category) {
+        RecipeCard card = new RecipeCard(UUID.randomUUID(), title, "Test description", null, 10, 20, 4,
+                null, null, true, LocalDateTime.now(), LocalDateTime.now(), author.getUsername());
+        card.getCategories().add(category.getName());
+        return card;
+    }
+
+
     private Category createCategory(String name) {
         return Category.builder().name(name).build();
     }
@@ -2,11 +2,14 @@ package app.web;
 
 
 import app.security.AuthenticationMethadata;
+import app.security.CustomAuthenticationFailureHandler;
+import app.user.model.CurrentUser;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -27,6 +30,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import(CustomAuthenticationFailureHandler.class)
 @ActiveProfiles("test")
 public class UserControllerApiTest {
 
@@ -42,7 +46,8 @@ public class UserControllerApiTest {
     void getProfileMenu_shouldReturnEditProfileView() throws Exception {
         User user = aRandomUser();
 
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
@@ -55,12 +60,14 @@ public class UserControllerApiTest {
                 .andExpect(view().name("edit-profile"))
                 .andExpect(model().attributeExists("user", "userEditRequest"));
 
-        verify(userService, times(1)).getById(user.getId());
+        verify(userService, times(1)).getCurrentUser(user.getId());
     }
 
     @Test
     void updateUserProfile_shouldRedirectToHome() throws Exception {
         User user = aRandomUser();
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
@@ -76,13 +83,14 @@ public class UserControllerApiTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/home"));
 
-        verify(userService, times(1)).editUserDetails(any(), any());
+        verify(userService, times(1)).editUserDetails(eq(user.getId()), any());
     }
 
     @Test
     void updateUserProfile_withInvalidData_shouldReturnEditProfileView() throws Exception {
         User user = aRandomUser();
-        when(userService.getById(user.getId())).thenReturn(user);
+        when(userService.getCurrentUser(user.getId())).thenReturn(CurrentUser.from(user));
+        when(userService.getReference(user.getId())).thenReturn(user);
 
         AuthenticationMethadata principal = new AuthenticationMethadata(user.getId(), user.getUsername(),
                 user.getPassword(), user.getRole(), user.isActive());
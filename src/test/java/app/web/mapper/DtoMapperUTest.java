@@ -1,6 +1,6 @@
 package app.web.mapper;
 
-import app.user.model.User;
+import app.user.model.CurrentUser;
 import app.web.dto.UserEditRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,7 +15,7 @@ public class DtoMapperUTest {
     @Test
     void testMapUserToUserEditRequest() {
 
-        User user = User.builder()
+        CurrentUser user = CurrentUser.builder()
                 .firstName("Emi")
                 .lastName("Aba")
                 .profilePicture("https://example.com/photo.jpg")
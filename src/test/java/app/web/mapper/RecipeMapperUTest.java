@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,7 +35,6 @@ public class RecipeMapperUTest {
                 .instructions("Mix and bake")
                 .imageUrl("www.image.com")
                 .isPublic(true)
-                .ingredients("flour, sugar, eggs")
                 .calories(100)
                 .protein(2.0)
                 .carbs(20.0)
@@ -43,6 +43,7 @@ public class RecipeMapperUTest {
                 .sugar(5.0)
                 .sodium(50.0)
                 .categories(Set.of(category))
+                .recipeIngredients(List.of())
                 .build();
 
 
@@ -58,7 +59,7 @@ public class RecipeMapperUTest {
         assertEquals("Mix and bake", result.getInstructions());
         assertEquals("www.image.com", result.getImageUrl());
         assertEquals(true, result.getIsPublic());
-        assertEquals("flour, sugar, eggs", result.getIngredients());
+        assertTrue(result.getRecipeIngredients().isEmpty());
         assertEquals(100, result.getCalories());
         assertEquals(2.0, result.getProtein());
         assertEquals(20.0, result.getCarbs());
@@ -80,6 +81,7 @@ public class RecipeMapperUTest {
         Recipe recipe = Recipe.builder()
                 .title("Chocolate Cake")
                 .categories(null)
+                .recipeIngredients(List.of())
                 .build();
 
         RecipeUpdateRequest result = RecipeMapper.toUpdateRequest(recipe);